@@ -0,0 +1,74 @@
+package com.thirikkale.scheduledrideservice.benchmarks;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.util.DistanceCalculator;
+import com.thirikkale.scheduledrideservice.util.GeoBatchFilter;
+import com.thirikkale.scheduledrideservice.util.GeoKernel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Radius filter over structure-of-arrays pickups: scalar {@link GeoKernel} against the Vector
+ * API filter, with a per-ride {@link DistanceCalculator} loop as the reference. The 3 km radius
+ * lets the bounding box reject most rides; at 15 km most rides need the full haversine.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BatchRadiusFilterBenchmark {
+
+    @Param({"1000", "100000"})
+    private int rides;
+
+    @Param({"3", "15"})
+    private double radiusKm;
+
+    private double[] lats;
+    private double[] lngs;
+    private int[] within;
+    private double[] distances;
+    private GeoKernel.Circle area;
+    private GeoBatchFilter vector;
+
+    @Setup
+    public void setup() {
+        List<ScheduledRide> candidates = Fixtures.rides(rides, 7, false);
+        lats = candidates.stream().mapToDouble(ScheduledRide::getPickupLatitude).toArray();
+        lngs = candidates.stream().mapToDouble(ScheduledRide::getPickupLongitude).toArray();
+        within = new int[rides];
+        distances = new double[rides];
+        area = GeoKernel.circle(Fixtures.BASE_LAT, Fixtures.BASE_LNG, radiusKm);
+        vector = GeoBatchFilter.vector();
+        if (vector == null) {
+            throw new IllegalStateException("jdk.incubator.vector is not available in this JVM");
+        }
+    }
+
+    @Benchmark
+    public int distanceCalculator() {
+        int found = 0;
+        for (int i = 0; i < rides; i++) {
+            double km = DistanceCalculator.calculateDistance(Fixtures.BASE_LAT, Fixtures.BASE_LNG, lats[i], lngs[i]);
+            if (km <= radiusKm) {
+                distances[found] = km;
+                within[found++] = i;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int scalar() {
+        return GeoBatchFilter.scalar().filter(area, lats, lngs, rides, within, distances);
+    }
+
+    @Benchmark
+    public int vector() {
+        return vector.filter(area, lats, lngs, rides, within, distances);
+    }
+}
@@ -0,0 +1,46 @@
+package com.thirikkale.scheduledrideservice.benchmarks;
+
+import com.thirikkale.scheduledrideservice.matching.DetourEvaluator;
+import com.thirikkale.scheduledrideservice.matching.GridClusteringEngine;
+import com.thirikkale.scheduledrideservice.matching.MatchingProperties;
+import com.thirikkale.scheduledrideservice.matching.RideCluster;
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One matching pass of the grid engine, detour check on, over GROUPING candidates spread over
+ * four hours and a 22 km square around Colombo. The greedy reference engine is in
+ * {@link ReferenceClusteringBenchmark}; it cannot finish 100k candidates in a useful time.
+ * The fork adds the Vector API module, so radius checks use the SIMD filter; run with
+ * -jvmArgsAppend -Dgeo.vector.enabled=false for the scalar kernel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ClusteringBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int candidates;
+
+    private GridClusteringEngine engine;
+    private List<ScheduledRide> rides;
+
+    @Setup
+    public void setup() {
+        MatchingProperties properties = Fixtures.matchingProperties();
+        DetourEvaluator detourEvaluator = Fixtures.detourEvaluator(properties);
+        engine = new GridClusteringEngine(properties, detourEvaluator);
+        rides = Fixtures.rides(candidates, 11, true);
+    }
+
+    @Benchmark
+    public List<RideCluster> grid() {
+        return engine.cluster(rides);
+    }
+}
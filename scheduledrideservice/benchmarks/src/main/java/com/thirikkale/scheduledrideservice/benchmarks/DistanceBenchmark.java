@@ -0,0 +1,94 @@
+package com.thirikkale.scheduledrideservice.benchmarks;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.util.DistanceCalculator;
+import com.thirikkale.scheduledrideservice.util.GeoKernel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DistanceCalculator} as the services called it: one pair at a time, and a radius scan
+ * of one query point over every ride's pickup, the shape of the in-memory nearby and route
+ * match filters. Coordinates are read from the rides, so the boxed Doubles are the real ones.
+ * The kernel variants run the same scans through a {@link GeoKernel.Circle}, per ride and over
+ * structure-of-arrays copies of the pickups.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DistanceBenchmark {
+
+    @Param({"1000", "100000"})
+    private int rides;
+
+    private List<ScheduledRide> candidates;
+    private ScheduledRide a;
+    private ScheduledRide b;
+    private double queryLat;
+    private double queryLng;
+    private double[] lats;
+    private double[] lngs;
+    private int[] within;
+    private double[] distances;
+
+    @Setup
+    public void setup() {
+        candidates = Fixtures.rides(rides, 7, false);
+        a = candidates.get(0);
+        b = candidates.get(1);
+        queryLat = Fixtures.BASE_LAT;
+        queryLng = Fixtures.BASE_LNG;
+        lats = candidates.stream().mapToDouble(ScheduledRide::getPickupLatitude).toArray();
+        lngs = candidates.stream().mapToDouble(ScheduledRide::getPickupLongitude).toArray();
+        within = new int[rides];
+        distances = new double[rides];
+    }
+
+    @Benchmark
+    public double pair() {
+        return DistanceCalculator.calculateDistance(a.getPickupLatitude(), a.getPickupLongitude(),
+                b.getPickupLatitude(), b.getPickupLongitude());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int radiusScan() {
+        int within = 0;
+        for (ScheduledRide r : candidates) {
+            if (DistanceCalculator.isWithinRadius(queryLat, queryLng, r.getPickupLatitude(), r.getPickupLongitude(), 3.0)) {
+                within++;
+            }
+        }
+        return within;
+    }
+
+    @Benchmark
+    public double pairKernel() {
+        return GeoKernel.distanceKm(a.getPickupLatitude(), a.getPickupLongitude(),
+                b.getPickupLatitude(), b.getPickupLongitude());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int radiusScanCircle() {
+        GeoKernel.Circle area = GeoKernel.circle(queryLat, queryLng, 3.0);
+        int found = 0;
+        for (ScheduledRide r : candidates) {
+            if (area.contains(r.getPickupLatitude(), r.getPickupLongitude())) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int radiusScanBlock() {
+        return GeoKernel.circle(queryLat, queryLng, 3.0).filter(lats, lngs, rides, within, distances);
+    }
+}
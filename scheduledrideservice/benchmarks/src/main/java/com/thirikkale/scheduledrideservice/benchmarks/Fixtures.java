@@ -0,0 +1,127 @@
+package com.thirikkale.scheduledrideservice.benchmarks;
+
+import com.thirikkale.scheduledrideservice.dto.ScheduledRideCreateRequestDto;
+import com.thirikkale.scheduledrideservice.index.ActiveRideIndex;
+import com.thirikkale.scheduledrideservice.matching.DetourEvaluator;
+import com.thirikkale.scheduledrideservice.matching.HaversineTravelTimeEstimator;
+import com.thirikkale.scheduledrideservice.matching.MatchingProperties;
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
+
+import java.lang.reflect.Field;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic rides around Colombo for the benchmarks.
+ */
+final class Fixtures {
+
+    static final double BASE_LAT = 6.9271;
+    static final double BASE_LNG = 79.8612;
+
+    private Fixtures() {
+    }
+
+    static ScheduledRide ride(int i, Random random, boolean shared) {
+        return ScheduledRide.builder()
+                .id(String.format("%024x", i))
+                .riderId("rider-" + i)
+                .pickupAddress("Pickup " + i)
+                .pickupLatitude(BASE_LAT + (random.nextDouble() - 0.5) * 0.2)
+                .pickupLongitude(BASE_LNG + (random.nextDouble() - 0.5) * 0.2)
+                .dropoffAddress("Dropoff " + i)
+                .dropoffLatitude(BASE_LAT + (random.nextDouble() - 0.5) * 0.4)
+                .dropoffLongitude(BASE_LNG + (random.nextDouble() - 0.5) * 0.4)
+                .passengers(1 + random.nextInt(2))
+                .isSharedRide(shared)
+                .scheduledTime(Instant.parse("2026-01-01T08:00:00Z").plusSeconds(random.nextInt(4 * 3600)))
+                .status(shared ? ScheduledRideStatus.GROUPING : ScheduledRideStatus.SCHEDULED)
+                .rideType("STANDARD")
+                .vehicleType("CAR")
+                .distanceKm(3 + random.nextDouble() * 20)
+                .waitingTimeMin(5)
+                .isWomenOnly(false)
+                .maxFare(2500.0)
+                .createdAt(Instant.parse("2025-12-31T12:00:00Z"))
+                .updatedAt(Instant.parse("2025-12-31T12:00:00Z"))
+                .build();
+    }
+
+    static List<ScheduledRide> rides(int n, long seed, boolean shared) {
+        Random random = new Random(seed);
+        List<ScheduledRide> rides = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rides.add(ride(i, random, shared));
+        }
+        return rides;
+    }
+
+    static ScheduledRideCreateRequestDto createRequest(ScheduledRide ride) {
+        return ScheduledRideCreateRequestDto.builder()
+                .riderId(ride.getRiderId())
+                .pickupAddress(ride.getPickupAddress())
+                .pickupLatitude(ride.getPickupLatitude())
+                .pickupLongitude(ride.getPickupLongitude())
+                .dropoffAddress(ride.getDropoffAddress())
+                .dropoffLatitude(ride.getDropoffLatitude())
+                .dropoffLongitude(ride.getDropoffLongitude())
+                .scheduledTime(ride.getScheduledTime())
+                .passengers(ride.getPassengers())
+                .isSharedRide(ride.getIsSharedRide())
+                .rideType(ride.getRideType())
+                .vehicleType(ride.getVehicleType())
+                .distanceKm(ride.getDistanceKm())
+                .waitingTimeMin(ride.getWaitingTimeMin())
+                .isWomenOnly(ride.getIsWomenOnly())
+                .maxFare(ride.getMaxFare())
+                .build();
+    }
+
+    /**
+     * Matching limits and travel model with the application.yml defaults, wired by hand.
+     */
+    static MatchingProperties matchingProperties() {
+        MatchingProperties properties = new MatchingProperties();
+        set(properties, "timeWindowMinutes", 10);
+        set(properties, "pickupRadiusMeters", 800);
+        set(properties, "maxGroupSize", 3);
+        set(properties, "maxDetourMinutes", 8);
+        return properties;
+    }
+
+    /**
+     * An enabled index holding the rides, with the application.yml grid; never loaded from MongoDB.
+     */
+    static ActiveRideIndex activeRideIndex(List<ScheduledRide> rides) {
+        ActiveRideIndex index = new ActiveRideIndex(null);
+        set(index, "enabled", true);
+        set(index, "cellSizeDegrees", 0.01);
+        set(index, "timeBucketMinutes", 15);
+        index.applyAll(rides);
+        return index;
+    }
+
+    static DetourEvaluator detourEvaluator(MatchingProperties properties) {
+        HaversineTravelTimeEstimator estimator = new HaversineTravelTimeEstimator();
+        set(estimator, "roadFactor", 1.3);
+        set(estimator, "offPeakSpeedKmh", 30.0);
+        set(estimator, "peakSpeedKmh", 18.0);
+        set(estimator, "peakHours", List.of(7, 8, 9, 16, 17, 18));
+        set(estimator, "zone", "Asia/Colombo");
+        return new DetourEvaluator(estimator, properties);
+    }
+
+    // The components read their settings through @Value fields, which have no setters
+    private static void set(Object target, String field, Object value) {
+        try {
+            Field f = target.getClass().getDeclaredField(field);
+            f.setAccessible(true);
+            f.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + field + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+}
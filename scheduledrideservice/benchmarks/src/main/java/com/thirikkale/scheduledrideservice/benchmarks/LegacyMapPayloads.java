@@ -0,0 +1,60 @@
+package com.thirikkale.scheduledrideservice.benchmarks;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The map payloads RideRequestPublisher built before the typed records, kept as the baseline.
+ */
+final class LegacyMapPayloads {
+
+    private LegacyMapPayloads() {
+    }
+
+    static Map<String, Object> solo(ScheduledRide r) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("rideId", r.getId());
+        payload.put("riderId", r.getRiderId());
+        payload.put("pickupLat", r.getPickupLatitude());
+        payload.put("pickupLng", r.getPickupLongitude());
+        payload.put("dropoffLat", r.getDropoffLatitude());
+        payload.put("dropoffLng", r.getDropoffLongitude());
+        payload.put("scheduledTime", r.getScheduledTime().toString());
+        payload.put("passengers", r.getPassengers());
+        payload.put("isShared", false);
+        payload.put("rideType", r.getRideType());
+        payload.put("vehicleType", r.getVehicleType());
+        payload.put("distanceKm", r.getDistanceKm());
+        payload.put("waitingTimeMin", r.getWaitingTimeMin());
+        payload.put("womenOnly", r.getIsWomenOnly());
+        payload.put("driverId", r.getDriverId());
+        payload.put("maxFare", r.getMaxFare());
+        payload.put("specialRequests", r.getSpecialRequests());
+        return payload;
+    }
+
+    static Map<String, Object> shared(String groupId, List<ScheduledRide> members) {
+        List<Map<String, Object>> riders = new ArrayList<>();
+        for (ScheduledRide r : members) {
+            riders.add(Map.of(
+                    "scheduledRideId", r.getId(),
+                    "riderId", r.getRiderId(),
+                    "pickupLat", r.getPickupLatitude(),
+                    "pickupLng", r.getPickupLongitude(),
+                    "dropoffLat", r.getDropoffLatitude(),
+                    "dropoffLng", r.getDropoffLongitude(),
+                    "passengers", r.getPassengers()
+            ));
+        }
+        return Map.of(
+                "groupId", groupId,
+                "scheduledTime", members.get(0).getScheduledTime().toString(),
+                "members", riders,
+                "isShared", true
+        );
+    }
+}
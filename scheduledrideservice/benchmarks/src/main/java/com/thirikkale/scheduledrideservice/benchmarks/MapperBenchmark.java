@@ -0,0 +1,55 @@
+package com.thirikkale.scheduledrideservice.benchmarks;
+
+import com.thirikkale.scheduledrideservice.dto.NearbyUserResponseDto;
+import com.thirikkale.scheduledrideservice.dto.RouteMatchResponseDto;
+import com.thirikkale.scheduledrideservice.dto.ScheduledRideCreateRequestDto;
+import com.thirikkale.scheduledrideservice.dto.ScheduledRideResponseDto;
+import com.thirikkale.scheduledrideservice.mapper.ScheduledRideMapper;
+import com.thirikkale.scheduledrideservice.model.RouteMatchResult;
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-ride cost of the {@link ScheduledRideMapper} conversions every read and write goes through.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MapperBenchmark {
+
+    private ScheduledRide ride;
+    private ScheduledRideCreateRequestDto request;
+    private RouteMatchResult match;
+
+    @Setup
+    public void setup() {
+        ride = Fixtures.rides(1, 21, false).get(0);
+        request = Fixtures.createRequest(ride);
+        match = new RouteMatchResult(ride, 1.25, 2.5, 3.75);
+    }
+
+    @Benchmark
+    public ScheduledRideResponseDto toDto() {
+        return ScheduledRideMapper.toDto(ride);
+    }
+
+    @Benchmark
+    public ScheduledRide toEntity() {
+        return ScheduledRideMapper.toEntity(request);
+    }
+
+    @Benchmark
+    public NearbyUserResponseDto toNearbyDto() {
+        return ScheduledRideMapper.toNearbyDto(ride, 1.25);
+    }
+
+    @Benchmark
+    public RouteMatchResponseDto toRouteMatchDto() {
+        return ScheduledRideMapper.toRouteMatchDto(match);
+    }
+}
@@ -0,0 +1,103 @@
+package com.thirikkale.scheduledrideservice.benchmarks;
+
+import com.thirikkale.scheduledrideservice.config.RabbitConfig;
+import com.thirikkale.scheduledrideservice.messaging.payload.SharedRideGroupRequestPayload;
+import com.thirikkale.scheduledrideservice.messaging.payload.SoloRideRequestPayload;
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a ride into an AMQP message body: building the payload record alone, as
+ * RideOutbox does when it enqueues, then the legacy maps (Java-serialized, as the
+ * default RabbitTemplate sent them, and as JSON) against the typed records as JSON and CBOR.
+ * Run with -prof gc for allocation per message; {@link PayloadSizes} prints the encoded sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PayloadEncodingBenchmark {
+
+    private final MessageConverter legacy = new SimpleMessageConverter();
+    private final MessageConverter converter = new RabbitConfig().rideRequestMessageConverter();
+
+    private ScheduledRide solo;
+    private List<ScheduledRide> members;
+
+    @Setup
+    public void setup() {
+        solo = Fixtures.rides(1, 42, false).get(0);
+        members = Fixtures.rides(3, 43, true);
+    }
+
+    static MessageProperties json() {
+        MessageProperties props = new MessageProperties();
+        props.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        return props;
+    }
+
+    static MessageProperties cbor() {
+        MessageProperties props = new MessageProperties();
+        props.setContentType(RabbitConfig.CONTENT_TYPE_CBOR);
+        return props;
+    }
+
+    @Benchmark
+    public SoloRideRequestPayload soloRecord() {
+        return SoloRideRequestPayload.of(solo);
+    }
+
+    @Benchmark
+    public SharedRideGroupRequestPayload sharedRecord() {
+        return SharedRideGroupRequestPayload.of("group-1", members);
+    }
+
+    @Benchmark
+    public Message soloLegacyMapJavaSerialized() {
+        return legacy.toMessage(LegacyMapPayloads.solo(solo), new MessageProperties());
+    }
+
+    @Benchmark
+    public Message soloLegacyMapJson() {
+        return converter.toMessage(LegacyMapPayloads.solo(solo), json());
+    }
+
+    @Benchmark
+    public Message soloRecordJson() {
+        return converter.toMessage(SoloRideRequestPayload.of(solo), json());
+    }
+
+    @Benchmark
+    public Message soloRecordCbor() {
+        return converter.toMessage(SoloRideRequestPayload.of(solo), cbor());
+    }
+
+    @Benchmark
+    public Message sharedLegacyMapJavaSerialized() {
+        return legacy.toMessage(LegacyMapPayloads.shared("group-1", members), new MessageProperties());
+    }
+
+    @Benchmark
+    public Message sharedLegacyMapJson() {
+        return converter.toMessage(LegacyMapPayloads.shared("group-1", members), json());
+    }
+
+    @Benchmark
+    public Message sharedRecordJson() {
+        return converter.toMessage(SharedRideGroupRequestPayload.of("group-1", members), json());
+    }
+
+    @Benchmark
+    public Message sharedRecordCbor() {
+        return converter.toMessage(SharedRideGroupRequestPayload.of("group-1", members), cbor());
+    }
+}
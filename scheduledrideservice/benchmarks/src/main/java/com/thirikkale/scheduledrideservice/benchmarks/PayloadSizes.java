@@ -0,0 +1,39 @@
+package com.thirikkale.scheduledrideservice.benchmarks;
+
+import com.thirikkale.scheduledrideservice.config.RabbitConfig;
+import com.thirikkale.scheduledrideservice.messaging.payload.SharedRideGroupRequestPayload;
+import com.thirikkale.scheduledrideservice.messaging.payload.SoloRideRequestPayload;
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+
+import java.util.List;
+
+/**
+ * Prints the encoded body size of each payload variant measured by {@link PayloadEncodingBenchmark}.
+ *
+ * java -cp target/benchmarks.jar com.thirikkale.scheduledrideservice.benchmarks.PayloadSizes
+ */
+public class PayloadSizes {
+
+    public static void main(String[] args) {
+        MessageConverter legacy = new SimpleMessageConverter();
+        MessageConverter converter = new RabbitConfig().rideRequestMessageConverter();
+        ScheduledRide solo = Fixtures.rides(1, 42, false).get(0);
+        List<ScheduledRide> members = Fixtures.rides(3, 43, true);
+
+        print("solo   legacy map, Java serialization", legacy.toMessage(LegacyMapPayloads.solo(solo), new MessageProperties()).getBody().length);
+        print("solo   legacy map, JSON", converter.toMessage(LegacyMapPayloads.solo(solo), PayloadEncodingBenchmark.json()).getBody().length);
+        print("solo   record, JSON", converter.toMessage(SoloRideRequestPayload.of(solo), PayloadEncodingBenchmark.json()).getBody().length);
+        print("solo   record, CBOR", converter.toMessage(SoloRideRequestPayload.of(solo), PayloadEncodingBenchmark.cbor()).getBody().length);
+        print("shared legacy map, Java serialization", legacy.toMessage(LegacyMapPayloads.shared("group-1", members), new MessageProperties()).getBody().length);
+        print("shared legacy map, JSON", converter.toMessage(LegacyMapPayloads.shared("group-1", members), PayloadEncodingBenchmark.json()).getBody().length);
+        print("shared record, JSON", converter.toMessage(SharedRideGroupRequestPayload.of("group-1", members), PayloadEncodingBenchmark.json()).getBody().length);
+        print("shared record, CBOR", converter.toMessage(SharedRideGroupRequestPayload.of("group-1", members), PayloadEncodingBenchmark.cbor()).getBody().length);
+    }
+
+    private static void print(String variant, int bytes) {
+        System.out.printf("%-40s %5d bytes%n", variant, bytes);
+    }
+}
@@ -0,0 +1,43 @@
+package com.thirikkale.scheduledrideservice.benchmarks;
+
+import com.thirikkale.scheduledrideservice.matching.DetourEvaluator;
+import com.thirikkale.scheduledrideservice.matching.GreedyClusteringEngine;
+import com.thirikkale.scheduledrideservice.matching.MatchingProperties;
+import com.thirikkale.scheduledrideservice.matching.RideCluster;
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The O(n²) greedy engine on the same candidates as {@link ClusteringBenchmark}, up to the
+ * sizes it still completes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class ReferenceClusteringBenchmark {
+
+    @Param({"1000", "10000"})
+    private int candidates;
+
+    private GreedyClusteringEngine engine;
+    private List<ScheduledRide> rides;
+
+    @Setup
+    public void setup() {
+        MatchingProperties properties = Fixtures.matchingProperties();
+        DetourEvaluator detourEvaluator = Fixtures.detourEvaluator(properties);
+        engine = new GreedyClusteringEngine(properties, detourEvaluator);
+        rides = Fixtures.rides(candidates, 11, true);
+    }
+
+    @Benchmark
+    public List<RideCluster> greedy() {
+        return engine.cluster(rides);
+    }
+}
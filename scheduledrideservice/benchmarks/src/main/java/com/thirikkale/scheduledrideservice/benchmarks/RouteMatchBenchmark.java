@@ -0,0 +1,70 @@
+package com.thirikkale.scheduledrideservice.benchmarks;
+
+import com.thirikkale.scheduledrideservice.dto.RouteMatchResponseDto;
+import com.thirikkale.scheduledrideservice.index.ActiveRideIndex;
+import com.thirikkale.scheduledrideservice.mapper.ScheduledRideMapper;
+import com.thirikkale.scheduledrideservice.model.NearbyRideResult;
+import com.thirikkale.scheduledrideservice.model.RouteMatchResult;
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.util.GeoKernel;
+import com.thirikkale.scheduledrideservice.util.RouteMatchSelector;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One route match query against the active ride index, DTO mapping included. fullRanking is
+ * the previous shape: every ride in the pickup radius is checked, sorted and returned.
+ * topK ranks into a bounded heap over rings of cells and stops at the k-th best score.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RouteMatchBenchmark {
+
+    private static final double RADIUS_KM = 5.0;
+
+    @Param({"10000", "100000"})
+    private int rides;
+
+    @Param({"10", "100"})
+    private int limit;
+
+    private ActiveRideIndex index;
+    private GeoKernel.Circle pickupArea;
+    private GeoKernel.Circle dropoffArea;
+
+    @Setup
+    public void setup() {
+        index = Fixtures.activeRideIndex(Fixtures.rides(rides, 25, false));
+        pickupArea = GeoKernel.circle(Fixtures.BASE_LAT, Fixtures.BASE_LNG, RADIUS_KM);
+        dropoffArea = GeoKernel.circle(Fixtures.BASE_LAT + 0.05, Fixtures.BASE_LNG - 0.03, RADIUS_KM);
+    }
+
+    @Benchmark
+    public List<RouteMatchResponseDto> fullRanking() {
+        List<RouteMatchResult> matches = new ArrayList<>();
+        for (NearbyRideResult result : index.findNearPickup(pickupArea.latitude(), pickupArea.longitude(), RADIUS_KM)) {
+            ScheduledRide ride = result.getRide();
+            double pickupKm = result.getDistanceMeters() / 1000.0;
+            double dropoffKm = dropoffArea.distanceIfWithinKm(ride.getDropoffLatitude(), ride.getDropoffLongitude());
+            if (!Double.isNaN(dropoffKm)) {
+                matches.add(new RouteMatchResult(ride, pickupKm, dropoffKm, pickupKm + dropoffKm));
+            }
+        }
+        matches.sort(Comparator.comparingDouble(RouteMatchResult::getScore));
+        return matches.stream().map(ScheduledRideMapper::toRouteMatchDto).toList();
+    }
+
+    @Benchmark
+    public List<RouteMatchResponseDto> topK() {
+        RouteMatchSelector selector = new RouteMatchSelector(pickupArea, dropoffArea, 1.0, 1.0, limit);
+        return index.findRouteMatches(selector).stream().map(ScheduledRideMapper::toRouteMatchDto).toList();
+    }
+}
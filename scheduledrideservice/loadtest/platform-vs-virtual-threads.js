@@ -0,0 +1,67 @@
+// Throughput and p99 of the blocking read paths at high concurrency. Run it once against an
+// instance started with VIRTUAL_THREADS=false and once with VIRTUAL_THREADS=true (Java 21
+// runtime), same hardware and data, and compare http_reqs/s and http_req_duration p(99).
+//
+//   k6 run -e BASE_URL=http://localhost:8085/scheduling-service -e LABEL=platform loadtest/platform-vs-virtual-threads.js
+//   k6 run -e BASE_URL=http://localhost:8085/scheduling-service -e LABEL=virtual  loadtest/platform-vs-virtual-threads.js
+//
+// Each run writes its k6 summary to loadtest/platform-vs-virtual-threads-<LABEL>.json and prints
+// req/s and p99 per endpoint; commit both JSON files with the comparison.
+//
+// With platform threads Tomcat caps in-flight requests at server.tomcat.threads.max (200), so
+// past that point extra VUs only queue; with virtual threads the Mongo connection pool
+// (maxPoolSize in the URI, default 100) becomes the limit instead.
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8085/scheduling-service';
+const RIDERS = parseInt(__ENV.RIDERS || '500');
+
+export const options = {
+  scenarios: {
+    ramp: {
+      executor: 'ramping-vus',
+      startVUs: 50,
+      stages: [
+        { duration: '1m', target: 400 },
+        { duration: '2m', target: 1500 },
+        { duration: '2m', target: 1500 },
+        { duration: '30s', target: 0 },
+      ],
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  // Always-passing thresholds, only there so k6 keeps a per-endpoint trend in the summary
+  thresholds: {
+    'http_req_duration{name:upcoming}': ['max>=0'],
+    'http_req_duration{name:page}': ['max>=0'],
+    'http_req_duration{name:nearby}': ['max>=0'],
+  },
+  tags: { mode: __ENV.LABEL || 'unlabelled' },
+};
+
+export default function () {
+  const rider = `loadtest-rider-${Math.floor(Math.random() * RIDERS)}`;
+  const responses = http.batch([
+    ['GET', `${BASE_URL}/api/scheduled-rides/rider/${rider}/upcoming?size=20`, null, { tags: { name: 'upcoming' } }],
+    ['GET', `${BASE_URL}/api/scheduled-rides/page?limit=50&status=SCHEDULED`, null, { tags: { name: 'page' } }],
+    ['GET', `${BASE_URL}/api/scheduled-rides/nearby?latitude=6.93&longitude=79.86&radiusKm=3`, null, { tags: { name: 'nearby' } }],
+  ]);
+  responses.forEach((r) => check(r, { 'status 200': (res) => res.status === 200 }));
+}
+
+export function handleSummary(data) {
+  const label = __ENV.LABEL || 'unlabelled';
+  const lines = [`mode=${label} http_reqs/s=${data.metrics.http_reqs.values.rate.toFixed(1)}`
+      + ` p99=${data.metrics.http_req_duration.values['p(99)'].toFixed(1)}ms`
+      + ` failed=${(data.metrics.http_req_failed.values.rate * 100).toFixed(2)}%`];
+  for (const name of ['upcoming', 'page', 'nearby']) {
+    const trend = data.metrics[`http_req_duration{name:${name}}`];
+    if (trend) lines.push(`  ${name} p99=${trend.values['p(99)'].toFixed(1)}ms`);
+  }
+  return {
+    stdout: lines.join('\n') + '\n',
+    [`loadtest/platform-vs-virtual-threads-${label}.json`]: JSON.stringify(data, null, 2),
+  };
+}
@@ -0,0 +1,99 @@
+// Compares request volume for ride status updates: apps polling /rider/{id} versus holding
+// one /rider/{id}/events stream, while a writer changes a share of the rides.
+//
+// Needs k6 built with the SSE extension:
+//   xk6 build --with github.com/phymbert/xk6-sse
+//   ./k6 run -e BASE_URL=http://localhost:8085/scheduling-service -e MODE=poll loadtest/ride-updates-sse-vs-poll.js
+//   ./k6 run -e BASE_URL=http://localhost:8085/scheduling-service -e MODE=sse  loadtest/ride-updates-sse-vs-poll.js
+//
+// Compare http_reqs, data_received and the server's http.server.requests / process CPU between
+// the two runs. ride_updates_seen should match across modes; sse only trades polls for pushes.
+
+import http from 'k6/http';
+import sse from 'k6/x/sse';
+import { check, sleep } from 'k6';
+import { Counter } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8085/scheduling-service';
+const MODE = __ENV.MODE || 'poll';
+const RIDERS = parseInt(__ENV.RIDERS || '2000');
+const POLL_SECONDS = parseFloat(__ENV.POLL_SECONDS || '5');
+const DURATION = __ENV.DURATION || '5m';
+
+const updatesSeen = new Counter('ride_updates_seen');
+
+export const options = {
+  scenarios: {
+    clients: {
+      executor: 'constant-vus',
+      exec: MODE === 'sse' ? 'streamClient' : 'pollClient',
+      vus: RIDERS,
+      duration: DURATION,
+    },
+    writer: {
+      executor: 'constant-arrival-rate',
+      exec: 'writer',
+      rate: 20,
+      timeUnit: '1s',
+      duration: DURATION,
+      preAllocatedVUs: 20,
+    },
+  },
+};
+
+function riderId() {
+  return `loadtest-rider-${__VU % RIDERS}`;
+}
+
+export function setup() {
+  const rides = [];
+  for (let i = 0; i < RIDERS; i++) {
+    const res = http.post(`${BASE_URL}/api/scheduled-rides`, JSON.stringify({
+      riderId: `loadtest-rider-${i}`,
+      pickupAddress: 'Load test pickup',
+      pickupLatitude: 6.9271 + Math.random() * 0.1,
+      pickupLongitude: 79.8612 + Math.random() * 0.1,
+      dropoffAddress: 'Load test dropoff',
+      dropoffLatitude: 6.9 + Math.random() * 0.1,
+      dropoffLongitude: 79.85 + Math.random() * 0.1,
+      passengers: 1,
+      isSharedRide: false,
+      scheduledTime: new Date(Date.now() + 6 * 3600 * 1000).toISOString(),
+      rideType: 'STANDARD',
+      vehicleType: 'CAR',
+    }), { headers: { 'Content-Type': 'application/json' } });
+    rides.push(res.json('id'));
+  }
+  return { rides };
+}
+
+// Polls with If-None-Match like the apps do, counting a 200 as an observed update
+export function pollClient() {
+  let etag = null;
+  while (true) {
+    const res = http.get(`${BASE_URL}/api/scheduled-rides/rider/${riderId()}`,
+        { headers: etag ? { 'If-None-Match': etag } : {} });
+    check(res, { 'poll ok': (r) => r.status === 200 || r.status === 304 });
+    if (res.status === 200 && etag !== null) updatesSeen.add(1);
+    etag = res.headers['Etag'] || etag;
+    sleep(POLL_SECONDS);
+  }
+}
+
+export function streamClient() {
+  const res = sse.open(`${BASE_URL}/api/scheduled-rides/rider/${riderId()}/events`, {}, (client) => {
+    client.on('event', (event) => {
+      if (event.name === 'ride') updatesSeen.add(1);
+    });
+  });
+  check(res, { 'stream opened': (r) => r && r.status === 200 });
+}
+
+// Assigns and removes a load-test driver on random rides
+export function writer(data) {
+  const rideId = data.rides[Math.floor(Math.random() * data.rides.length)];
+  const assigned = http.put(`${BASE_URL}/api/scheduled-rides/${rideId}/assign-driver/loadtest-driver`);
+  if (assigned.status !== 200) {
+    http.del(`${BASE_URL}/api/scheduled-rides/${rideId}/remove-driver`);
+  }
+}
@@ -0,0 +1,12 @@
+package com.thirikkale.scheduledrideservice.cache;
+
+import java.util.List;
+
+/**
+ * Keys touched by one write, fanned out to every replica.
+ *
+ * @param origin node id of the replica that made the write
+ */
+public record RideCacheInvalidation(String origin, List<String> rideIds, List<String> riderIds,
+                                    List<String> driverIds) {
+}
@@ -0,0 +1,90 @@
+package com.thirikkale.scheduledrideservice.cache;
+
+import com.thirikkale.scheduledrideservice.event.RideChangedEvent;
+import com.thirikkale.scheduledrideservice.event.RideEvents;
+import com.thirikkale.scheduledrideservice.index.ActiveRideIndex;
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.repository.ScheduledRideRepository;
+import com.thirikkale.scheduledrideservice.scheduler.DispatchWheel;
+import com.thirikkale.scheduledrideservice.scheduler.SchedulerNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Drops cached reads after a ride write, here and on every other replica.
+ *
+ * Local {@link RideChangedEvent}s evict the ride, rider and driver keys right away and are
+ * broadcast on a fanout exchange; each replica listens on its own auto-delete queue. Other
+ * replicas evict the same keys, re-read the rides to bring their active index and dispatch
+ * wheel up to date, and replay the change on their own event bus for local subscribers.
+ * A lost broadcast leaves other replicas stale until the cache TTL runs out.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RideCacheInvalidator {
+
+    private final RideReadCache rideReadCache;
+    private final RabbitTemplate rabbitTemplate;
+    private final SchedulerNode schedulerNode;
+    private final ScheduledRideRepository repo;
+    private final ActiveRideIndex activeRideIndex;
+    private final DispatchWheel dispatchWheel;
+    private final RideEvents rideEvents;
+
+    @Value("${rabbitmq.cache.exchange:ride.cache.invalidation}") private String exchangeName;
+    @Value("${rabbitmq.cache.broadcast:true}") private boolean broadcast;
+
+    @EventListener
+    public void onRideChanged(RideChangedEvent event) {
+        // Relayed changes were evicted by onInvalidation already and must not bounce back
+        if (event.remote()) return;
+        Set<String> rideIds = new LinkedHashSet<>();
+        Set<String> riderIds = new LinkedHashSet<>();
+        Set<String> driverIds = new LinkedHashSet<>(event.previousDriverIds());
+        for (ScheduledRide r : event.rides()) {
+            rideIds.add(r.getId());
+            if (r.getRiderId() != null) riderIds.add(r.getRiderId());
+            if (r.getDriverId() != null && !r.getDriverId().isEmpty()) driverIds.add(r.getDriverId());
+        }
+        rideReadCache.evict(rideIds, riderIds, driverIds);
+        if (!broadcast) return;
+        RideCacheInvalidation invalidation = new RideCacheInvalidation(schedulerNode.getNodeId(),
+                new ArrayList<>(rideIds), new ArrayList<>(riderIds), new ArrayList<>(driverIds));
+        try {
+            rabbitTemplate.convertAndSend(exchangeName, "", invalidation);
+        } catch (Exception e) {
+            log.warn("Failed to broadcast cache invalidation for {} rides: {}", rideIds.size(), e.getMessage());
+        }
+    }
+
+    @RabbitListener(
+            bindings = @QueueBinding(
+                    value = @Queue(exclusive = "true", autoDelete = "true"),
+                    exchange = @Exchange(value = "${rabbitmq.cache.exchange:ride.cache.invalidation}",
+                            type = ExchangeTypes.FANOUT)),
+            autoStartup = "${rabbitmq.cache.broadcast:true}")
+    public void onInvalidation(RideCacheInvalidation invalidation) {
+        if (schedulerNode.getNodeId().equals(invalidation.origin())) return;
+        rideReadCache.evict(invalidation.rideIds(), invalidation.riderIds(), invalidation.driverIds());
+        List<ScheduledRide> rides = repo.findAllById(invalidation.rideIds());
+        activeRideIndex.applyAll(rides);
+        dispatchWheel.trackAll(rides);
+        rideEvents.remoteRidesChanged(rides, invalidation.driverIds());
+        log.debug("Applied cache invalidation from {} for {} rides", invalidation.origin(), invalidation.rideIds().size());
+    }
+}
@@ -0,0 +1,59 @@
+package com.thirikkale.scheduledrideservice.cache;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.repository.ScheduledRideRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Local read-through cache for the ride reads the mobile apps poll. Entries are bounded by
+ * the spring.cache.caffeine spec and dropped per key by {@link RideCacheInvalidator} on every
+ * write, so the TTL only matters when an invalidation is lost.
+ *
+ * Cached rides are shared between callers and must not be modified.
+ */
+@Component
+@RequiredArgsConstructor
+public class RideReadCache {
+
+    public static final String RIDES_BY_ID = "ridesById";
+    public static final String RIDES_BY_RIDER = "ridesByRider";
+    public static final String RIDES_BY_DRIVER = "ridesByDriver";
+
+    private final ScheduledRideRepository repo;
+    private final CacheManager cacheManager;
+
+    @Cacheable(cacheNames = RIDES_BY_ID, key = "#rideId")
+    public Optional<ScheduledRide> ride(String rideId) {
+        return repo.findById(rideId);
+    }
+
+    @Cacheable(cacheNames = RIDES_BY_RIDER, key = "#riderId")
+    public List<ScheduledRide> ridesOfRider(String riderId) {
+        return List.copyOf(repo.findByRiderId(riderId));
+    }
+
+    @Cacheable(cacheNames = RIDES_BY_DRIVER, key = "#driverId")
+    public List<ScheduledRide> ridesOfDriver(String driverId) {
+        return List.copyOf(repo.findByDriverId(driverId));
+    }
+
+    public void evict(Collection<String> rideIds, Collection<String> riderIds, Collection<String> driverIds) {
+        evict(RIDES_BY_ID, rideIds);
+        evict(RIDES_BY_RIDER, riderIds);
+        evict(RIDES_BY_DRIVER, driverIds);
+    }
+
+    private void evict(String cacheName, Collection<String> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) return;
+        keys.forEach(cache::evict);
+    }
+}
@@ -0,0 +1,13 @@
+package com.thirikkale.scheduledrideservice.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches and their Caffeine bounds are declared under spring.cache in application.yml,
+ * which also lets Actuator bind hit/miss/eviction metrics for each of them.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
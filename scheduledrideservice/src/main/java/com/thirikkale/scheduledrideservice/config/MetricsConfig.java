@@ -0,0 +1,46 @@
+package com.thirikkale.scheduledrideservice.config;
+
+import com.mongodb.event.CommandEvent;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.mongodb.DefaultMongoCommandTagsProvider;
+import io.micrometer.core.instrument.binder.mongodb.MongoCommandTagsProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Meters themselves are registered by the components they measure (all under scheduled_rides.*,
+ * tagged type=solo|shared); Actuator publishes them on /actuator/prometheus. This only adjusts
+ * Boot's MongoDB command metrics.
+ */
+@Configuration
+public class MetricsConfig {
+
+    static final String NO_ENDPOINT = "none";
+
+    /**
+     * Adds the matched request mapping to mongodb.driver.commands, so query time can be broken
+     * down per REST endpoint. Commands issued by the scheduler, relay or index are tagged "none".
+     * The blocking driver reports a command on the thread that ran it, where the request is bound.
+     */
+    @Bean
+    public MongoCommandTagsProvider mongoCommandTagsProvider() {
+        return new DefaultMongoCommandTagsProvider() {
+            @Override
+            public Iterable<Tag> commandTags(CommandEvent event) {
+                return Tags.of(super.commandTags(event)).and("endpoint", currentEndpoint());
+            }
+        };
+    }
+
+    static String currentEndpoint() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) return NO_ENDPOINT;
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        return pattern != null ? pattern.toString() : NO_ENDPOINT;
+    }
+}
@@ -1,28 +1,74 @@
 package com.thirikkale.scheduledrideservice.config;
 
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeospatialIndex;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+
 /**
  * MongoDB configuration
- * Using manual distance calculations instead of geospatial queries
+ * Creates the 2dsphere indexes used by the proximity queries and, when
+ * migrations.geoBackfill.enabled is set, backfills GeoJSON points on rides that were
+ * stored with lat/lng doubles only
  */
 @Configuration
+@RequiredArgsConstructor
 @Slf4j
 public class MongoIndexConfig {
 
+    private final MongoTemplate mongoTemplate;
+
+    // One-off migration: the filter on a missing field scans the whole collection, so it is off by default
+    @Value("${migrations.geoBackfill.enabled:false}") private boolean geoBackfillEnabled;
+
     @EventListener(ApplicationReadyEvent.class)
     public void initIndexes() {
         try {
-            // Indexes are no longer needed for geospatial queries
-            // Using manual distance calculations instead
             // The @Indexed annotation on scheduledTime field handles that index automatically
-            
-            log.info("MongoDB configuration initialized - using manual distance calculations");
+            IndexOperations ops = mongoTemplate.indexOps(ScheduledRide.class);
+            ops.createIndex(new GeospatialIndex("pickupLocation").typed(GeoSpatialIndexType.GEO_2DSPHERE));
+            ops.createIndex(new GeospatialIndex("dropoffLocation").typed(GeoSpatialIndexType.GEO_2DSPHERE));
+
+            if (!geoBackfillEnabled) {
+                log.info("MongoDB configuration initialized - 2dsphere indexes ready");
+                return;
+            }
+            long pickups = backfillGeoLocation("pickupLocation", "pickupLatitude", "pickupLongitude");
+            long dropoffs = backfillGeoLocation("dropoffLocation", "dropoffLatitude", "dropoffLongitude");
+
+            log.info("MongoDB configuration initialized - 2dsphere indexes ready, backfilled {} pickup and {} dropoff points",
+                    pickups, dropoffs);
         } catch (Exception e) {
             log.error("Failed to initialize MongoDB configuration", e);
         }
     }
+
+    /**
+     * Populates a GeoJSON point from the raw lat/lng fields for every ride that does not have one yet.
+     * Runs as a single server-side pipeline update, so no documents are loaded into the JVM.
+     *
+     * @return number of documents updated
+     */
+    public long backfillGeoLocation(String locationField, String latitudeField, String longitudeField) {
+        Query missing = new Query(Criteria.where(locationField).exists(false)
+                .and(latitudeField).ne(null)
+                .and(longitudeField).ne(null));
+        AggregationUpdate update = AggregationUpdate.update()
+                .set(locationField).toValue(new Document("type", "Point")
+                        .append("coordinates", List.of("$" + longitudeField, "$" + latitudeField)));
+        return mongoTemplate.updateMulti(missing, update, ScheduledRide.class).getModifiedCount();
+    }
 }
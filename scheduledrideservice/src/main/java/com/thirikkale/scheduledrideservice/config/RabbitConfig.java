@@ -1,18 +1,140 @@
 package com.thirikkale.scheduledrideservice.config;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.thirikkale.scheduledrideservice.cache.RideCacheInvalidation;
+import com.thirikkale.scheduledrideservice.messaging.payload.RideRequestPayload;
+import com.thirikkale.scheduledrideservice.messaging.payload.SharedRideGroupRequestPayload;
+import com.thirikkale.scheduledrideservice.messaging.payload.SoloRideRequestPayload;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.support.converter.AbstractJackson2MessageConverter;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.MimeType;
+
+import java.io.IOException;
+import java.util.Map;
 
 @Configuration
 public class RabbitConfig {
 
+    public static final String CONTENT_TYPE_CBOR = "application/cbor";
+    // What the publisher sent before the typed payloads: Java-serialized maps, no __TypeId__
+    public static final String CONTENT_TYPE_LEGACY = MessageProperties.CONTENT_TYPE_SERIALIZED_OBJECT;
+
+    // Stable type ids for the __TypeId__ header, so consumers never depend on our class names
+    private static final Map<String, Class<?>> PAYLOAD_TYPES = Map.of(
+            "solo-ride-request", SoloRideRequestPayload.class,
+            "shared-ride-group-request", SharedRideGroupRequestPayload.class,
+            "ride-cache-invalidation", RideCacheInvalidation.class);
+
     @Value("${rabbitmq.exchange:ride.requests.exchange}")
     private String exchangeName;
 
+    @Value("${rabbitmq.payload.contentType:" + CONTENT_TYPE_LEGACY + "}")
+    private String payloadContentType;
+
     @Bean
     public TopicExchange rideRequestsExchange() {
         return new TopicExchange(exchangeName);
     }
+
+    /**
+     * Single converter picked up by the RabbitTemplate and listener containers. Outgoing messages
+     * use the configured content type; incoming ones are decoded by their content-type header.
+     *
+     * Ride requests stay in the legacy encoding by default. JSON and CBOR change the wire format
+     * (body, content type and a __TypeId__ such as "solo-ride-request"), so switching is a
+     * coordinated change with the consumers.
+     */
+    @Bean
+    public MessageConverter rideRequestMessageConverter() {
+        Jackson2JsonMessageConverter json = new Jackson2JsonMessageConverter(
+                configure(JsonMapper.builder().build()));
+        json.setJavaTypeMapper(typeMapper());
+        CborMessageConverter cbor = new CborMessageConverter(configure(CBORMapper.builder().build()));
+        cbor.setJavaTypeMapper(typeMapper());
+
+        MessageConverter outgoing = switch (payloadContentType) {
+            case CONTENT_TYPE_LEGACY -> new LegacyRideRequestConverter(json);
+            case MessageProperties.CONTENT_TYPE_JSON -> json;
+            case CONTENT_TYPE_CBOR -> cbor;
+            default -> throw new IllegalStateException("Unsupported rabbitmq.payload.contentType: " + payloadContentType);
+        };
+        ContentTypeDelegatingMessageConverter converter = new ContentTypeDelegatingMessageConverter(outgoing);
+        converter.addDelegate(MessageProperties.CONTENT_TYPE_JSON, json);
+        converter.addDelegate(CONTENT_TYPE_CBOR, cbor);
+        return converter;
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        return mapper.registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    }
+
+    private static DefaultJackson2JavaTypeMapper typeMapper() {
+        DefaultJackson2JavaTypeMapper typeMapper = new DefaultJackson2JavaTypeMapper();
+        typeMapper.setIdClassMapping(PAYLOAD_TYPES);
+        return typeMapper;
+    }
+
+    /**
+     * Sends ride requests as the Java-serialized maps the consumers were built against and
+     * everything else (cache invalidations) as JSON. Nothing is read in this format.
+     */
+    static class LegacyRideRequestConverter implements MessageConverter {
+        private final SimpleMessageConverter legacy = new SimpleMessageConverter();
+        private final MessageConverter json;
+
+        LegacyRideRequestConverter(MessageConverter json) {
+            this.json = json;
+        }
+
+        @Override
+        public Message toMessage(Object object, MessageProperties messageProperties) {
+            if (object instanceof RideRequestPayload payload) {
+                return legacy.toMessage(payload.toLegacyMap(), messageProperties);
+            }
+            return json.toMessage(object, messageProperties);
+        }
+
+        @Override
+        public Object fromMessage(Message message) {
+            return json.fromMessage(message);
+        }
+    }
+
+    /**
+     * Jackson converter for CBOR. Writing goes through the base class as raw bytes; reading is
+     * overridden because the base class decodes the body as a String first.
+     */
+    static class CborMessageConverter extends AbstractJackson2MessageConverter {
+        CborMessageConverter(ObjectMapper cborMapper) {
+            super(cborMapper, MimeType.valueOf(CONTENT_TYPE_CBOR));
+        }
+
+        @Override
+        public Object fromMessage(Message message, Object conversionHint) {
+            try {
+                return objectMapper.readValue(message.getBody(),
+                        getJavaTypeMapper().toJavaType(message.getMessageProperties()));
+            } catch (IOException e) {
+                throw new MessageConversionException("Failed to read CBOR message", e);
+            }
+        }
+    }
 }
@@ -0,0 +1,42 @@
+package com.thirikkale.scheduledrideservice.config;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import org.bson.UuidRepresentation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+
+/**
+ * Reactive MongoDB client for the /api/reactive endpoints, created only when api.reactive.enabled
+ * is set. Boot's reactive Mongo auto-configuration is excluded in application.yml so that with the
+ * switch off no second connection pool is opened.
+ */
+@Configuration
+@ConditionalOnProperty(name = "api.reactive.enabled", havingValue = "true")
+public class ReactiveMongoConfig {
+
+    @Bean(destroyMethod = "close")
+    public MongoClient reactiveMongoClient(MongoProperties properties) {
+        MongoClientSettings settings = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(properties.getUri()))
+                .uuidRepresentation(UuidRepresentation.STANDARD)
+                .build();
+        return MongoClients.create(settings);
+    }
+
+    // Shares the mapping converter with the blocking template, so documents map identically
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(MongoClient reactiveMongoClient, MongoProperties properties,
+                                                       MappingMongoConverter mappingMongoConverter) {
+        return new ReactiveMongoTemplate(
+                new SimpleReactiveMongoDatabaseFactory(reactiveMongoClient, properties.getMongoClientDatabase()),
+                mappingMongoConverter);
+    }
+}
@@ -1,19 +1,35 @@
 package com.thirikkale.scheduledrideservice.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 @Configuration
 @EnableScheduling
 public class SchedulingConfig {
+    /**
+     * One worker per @Scheduled job (seven today), so no job waits behind another. The size is
+     * deliberately not raised for virtual threads: a job never overlaps itself, so extra workers
+     * would sit idle. Virtual threads help differently, see below.
+     */
     @Bean
-    public ThreadPoolTaskScheduler taskScheduler() {
+    public ThreadPoolTaskScheduler taskScheduler(Environment environment,
+                                                 @Value("${scheduler.poolSize:8}") int poolSize) {
         ThreadPoolTaskScheduler s = new ThreadPoolTaskScheduler();
-        s.setPoolSize(8);
+        s.setPoolSize(poolSize);
         s.setThreadNamePrefix("schedule-");
+        // With spring.threads.virtual.enabled on Java 21+, the same workers are virtual threads:
+        // jobs blocked on Mongo or broker confirms release their carrier, and a fixed-rate job
+        // still never overlaps itself, which Boot's SimpleAsyncTaskScheduler would not promise
+        if (Threading.VIRTUAL.isActive(environment)) {
+            s.setThreadFactory(new VirtualThreadTaskExecutor("schedule-").getVirtualThreadFactory());
+        }
         s.initialize();
         return s;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package com.thirikkale.scheduledrideservice.controller;
+
+import com.thirikkale.scheduledrideservice.dto.ActiveIndexConsistencyDto;
+import com.thirikkale.scheduledrideservice.dto.ErrorResponseDto;
+import com.thirikkale.scheduledrideservice.index.ActiveRideIndex;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/scheduled-rides/active-index")
+@RequiredArgsConstructor
+public class ActiveRideIndexController {
+    private static final Logger log = LoggerFactory.getLogger(ActiveRideIndexController.class);
+    private final ActiveRideIndex activeRideIndex;
+
+    @GetMapping("/consistency")
+    public ResponseEntity<?> checkConsistency() {
+        log.debug("Checking active ride index against MongoDB");
+        try {
+            ActiveIndexConsistencyDto report = activeRideIndex.verifyAgainstMongo();
+            log.debug("Active ride index consistent: {}", report.getConsistent());
+            return ResponseEntity.ok(report);
+        } catch (RuntimeException ex) {
+            log.error("Error checking active ride index: {}", ex.getMessage());
+            return ResponseEntity.status(400).body(
+                ErrorResponseDto.builder()
+                    .error("BAD_REQUEST")
+                    .message(ex.getMessage())
+                    .build()
+            );
+        }
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<?> rebuild() {
+        log.debug("Rebuilding active ride index");
+        try {
+            int size = activeRideIndex.rebuild();
+            log.info("Active ride index rebuilt with {} rides", size);
+            return ResponseEntity.ok(Map.of("indexedCount", size));
+        } catch (RuntimeException ex) {
+            log.error("Error rebuilding active ride index: {}", ex.getMessage());
+            return ResponseEntity.status(400).body(
+                ErrorResponseDto.builder()
+                    .error("BAD_REQUEST")
+                    .message(ex.getMessage())
+                    .build()
+            );
+        }
+    }
+}
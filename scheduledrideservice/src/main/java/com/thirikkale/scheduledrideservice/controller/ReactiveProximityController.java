@@ -0,0 +1,72 @@
+package com.thirikkale.scheduledrideservice.controller;
+
+import com.thirikkale.scheduledrideservice.dto.ErrorResponseDto;
+import com.thirikkale.scheduledrideservice.dto.RouteMatchRequestDto;
+import com.thirikkale.scheduledrideservice.service.ReactiveProximityService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Reactive twins of the proximity endpoints in {@link ScheduledRideController}, for comparing
+ * memory and tail latency under the same load. Served by Spring MVC, which subscribes to the
+ * returned Flux: with Accept application/x-ndjson each result is written as soon as MongoDB
+ * returns it, at the pace the client reads; with application/json the Flux is collected into
+ * one array like the servlet endpoints.
+ */
+@RestController
+@RequestMapping("/api/reactive/scheduled-rides")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "api.reactive.enabled", havingValue = "true")
+public class ReactiveProximityController {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveProximityController.class);
+    private final ReactiveProximityService reactiveProximityService;
+
+    @GetMapping(value = "/nearby", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> getNearbyUsers(
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(defaultValue = "5.0") Double radiusKm) {
+        try {
+            return ResponseEntity.ok(reactiveProximityService.findNearbyUsers(latitude, longitude, radiusKm));
+        } catch (RuntimeException ex) {
+            return badRequest(ex);
+        }
+    }
+
+    @GetMapping(value = "/nearby-dropoff", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> getNearbyUsersByDropoff(
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(defaultValue = "5.0") Double radiusKm) {
+        try {
+            return ResponseEntity.ok(reactiveProximityService.findNearbyUsersByDropoff(latitude, longitude, radiusKm));
+        } catch (RuntimeException ex) {
+            return badRequest(ex);
+        }
+    }
+
+    @PostMapping(value = "/route-match", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> findRouteMatches(@Valid @RequestBody RouteMatchRequestDto request) {
+        try {
+            return ResponseEntity.ok(reactiveProximityService.findRouteMatches(request));
+        } catch (RuntimeException ex) {
+            return badRequest(ex);
+        }
+    }
+
+    private static ResponseEntity<ErrorResponseDto> badRequest(RuntimeException ex) {
+        log.error("Error in reactive proximity search: {}", ex.getMessage());
+        return ResponseEntity.status(400).contentType(MediaType.APPLICATION_JSON).body(
+            ErrorResponseDto.builder()
+                .error("BAD_REQUEST")
+                .message(ex.getMessage())
+                .build()
+        );
+    }
+}
@@ -6,19 +6,32 @@ import com.thirikkale.scheduledrideservice.dto.NearbyUserResponseDto;
 import com.thirikkale.scheduledrideservice.dto.RouteMatchRequestDto;
 import com.thirikkale.scheduledrideservice.dto.RouteMatchResponseDto;
 import com.thirikkale.scheduledrideservice.dto.ScheduledRideCreateRequestDto;
+import com.thirikkale.scheduledrideservice.dto.ScheduledRidePageDto;
 import com.thirikkale.scheduledrideservice.dto.ScheduledRideResponseDto;
+import com.thirikkale.scheduledrideservice.dto.ScheduledRideSliceDto;
 import com.thirikkale.scheduledrideservice.dto.ErrorResponseDto;
+import com.thirikkale.scheduledrideservice.event.RideSubscriptions;
+import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
 import com.thirikkale.scheduledrideservice.service.ScheduledRideService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.stream.Stream;
 
 
 @RestController
@@ -26,9 +39,13 @@ import java.time.format.DateTimeFormatter;
 @RequiredArgsConstructor
 public class ScheduledRideController {
     @GetMapping("/driver/{driverId}")
-    public ResponseEntity<java.util.List<ScheduledRideResponseDto>> getRidesByDriver(@PathVariable String driverId) {
+    public ResponseEntity<java.util.List<ScheduledRideResponseDto>> getRidesByDriver(@PathVariable String driverId,
+                                                                                  WebRequest webRequest) {
         log.debug("Fetching rides for driverId: {}", driverId);
         try {
+            if (webRequest.checkNotModified(scheduledRideService.getDriverRidesVersion(driverId, null, java.util.List.of()))) {
+                return null;
+            }
             java.util.List<ScheduledRideResponseDto> rides = scheduledRideService.getRidesByDriverId(driverId);
             log.debug("Found {} rides for driverId: {}", rides.size(), driverId);
             return ResponseEntity.ok(rides);
@@ -41,7 +58,10 @@ public class ScheduledRideController {
     }
     private static final Logger log = LoggerFactory.getLogger(ScheduledRideController.class);
     private static final DateTimeFormatter UTC_FORMATTER = DateTimeFormatter.ISO_INSTANT;
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
     private final ScheduledRideService scheduledRideService;
+    private final ObjectMapper objectMapper;
+    private final RideSubscriptions rideSubscriptions;
 
     @PostMapping
     public ResponseEntity<ScheduledRideResponseDto> schedule(@Valid @RequestBody ScheduledRideCreateRequestDto req) {
@@ -94,13 +114,27 @@ public class ScheduledRideController {
         }
     }
 
+    /**
+     * One page of every ride in (scheduledTime, id) order, still as a plain list. When more rides
+     * follow, a Link header with rel="next" carries the cursor; /stream exports everything at once.
+     */
     @GetMapping
-    public ResponseEntity<java.util.List<ScheduledRideResponseDto>> getAllRides() {
-        log.debug("Fetching all scheduled rides");
+    public ResponseEntity<java.util.List<ScheduledRideResponseDto>> getAllRides(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        log.debug("Fetching scheduled rides - cursor: {}, limit: {}", cursor, limit);
         try {
-            java.util.List<ScheduledRideResponseDto> rides = scheduledRideService.getAllRides();
-            log.debug("Found {} total rides", rides.size());
-            return ResponseEntity.ok(rides);
+            ScheduledRidePageDto page = scheduledRideService.getRidesPage(java.util.List.of(), null, null, cursor, limit);
+            log.debug("Found {} rides, next cursor: {}", page.getItems().size(), page.getNextCursor());
+            if (page.getNextCursor() == null) {
+                return ResponseEntity.ok(page.getItems());
+            }
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.getNextCursor())
+                    .toUriString();
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                    .body(page.getItems());
         } catch (RuntimeException ex) {
             log.error("Error fetching all rides: {}", ex.getMessage());
             java.util.List<ScheduledRideResponseDto> errorList = new java.util.ArrayList<>();
@@ -109,10 +143,147 @@ public class ScheduledRideController {
         }
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<?> getRidesPage(
+            @RequestParam(required = false) java.util.List<String> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        log.debug("Fetching ride page - status: {}, from: {}, to: {}, cursor: {}, limit: {}", status, from, to, cursor, limit);
+        try {
+            ScheduledRidePageDto page = scheduledRideService.getRidesPage(parseStatuses(status), from, to, cursor, limit);
+            log.debug("Returning {} rides, next cursor: {}", page.getItems().size(), page.getNextCursor());
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException ex) {
+            log.error("Error fetching ride page: {}", ex.getMessage());
+            return ResponseEntity.status(400).body(
+                ErrorResponseDto.builder()
+                    .error("BAD_REQUEST")
+                    .message(ex.getMessage())
+                    .build()
+            );
+        }
+    }
+
+    /**
+     * Same filters as /page, written as newline-delimited JSON straight from a Mongo cursor,
+     * so an export of the full history never holds more than one batch in memory.
+     */
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<?> streamRides(
+            @RequestParam(required = false) java.util.List<String> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        java.util.List<ScheduledRideStatus> statuses;
+        try {
+            statuses = parseStatuses(status);
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(400).contentType(MediaType.APPLICATION_JSON).body(
+                ErrorResponseDto.builder()
+                    .error("INVALID_STATUS")
+                    .message(ex.getMessage())
+                    .build()
+            );
+        }
+        StreamingResponseBody body = out -> {
+            // The cursor is opened on the async thread that writes the response and closed with it
+            try (Stream<ScheduledRideResponseDto> rides = scheduledRideService.streamRides(statuses, from, to)) {
+                for (ScheduledRideResponseDto ride : (Iterable<ScheduledRideResponseDto>) rides::iterator) {
+                    out.write(objectMapper.writeValueAsBytes(ride));
+                    out.write('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    private static java.util.List<ScheduledRideStatus> parseStatuses(java.util.List<String> statuses) {
+        if (statuses == null) return java.util.List.of();
+        try {
+            return statuses.stream().map(s -> ScheduledRideStatus.valueOf(s.trim().toUpperCase())).toList();
+        } catch (IllegalArgumentException ex) {
+            throw new RuntimeException("Invalid status. Valid values are: "
+                    + java.util.Arrays.toString(ScheduledRideStatus.values()));
+        }
+    }
+
+    @GetMapping("/{rideId}")
+    public ResponseEntity<?> getRide(@PathVariable String rideId, WebRequest webRequest) {
+        log.debug("Fetching ride {}", rideId);
+        try {
+            String version = scheduledRideService.getRideVersion(rideId);
+            if (version != null && webRequest.checkNotModified(version)) {
+                return null;
+            }
+            return ResponseEntity.ok(scheduledRideService.getRide(rideId));
+        } catch (RuntimeException ex) {
+            log.error("Error fetching ride: {}", ex.getMessage());
+            return ResponseEntity.status(ex.getMessage().contains("No ride found") ? 404 : 400).body(
+                ErrorResponseDto.builder()
+                    .error(ex.getMessage().contains("No ride found") ? "NOT_FOUND" : "BAD_REQUEST")
+                    .message(ex.getMessage())
+                    .build()
+            );
+        }
+    }
+
+    /**
+     * Pushes the ride's current state, then every change to it, as "ride" events.
+     */
+    @GetMapping(value = "/{rideId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> subscribeToRide(@PathVariable String rideId) {
+        log.debug("Opening event stream for ride {}", rideId);
+        try {
+            ScheduledRideResponseDto current = scheduledRideService.getRide(rideId);
+            SseEmitter emitter = rideSubscriptions.subscribeToRide(rideId);
+            rideSubscriptions.sendInitial(emitter, current);
+            return ResponseEntity.ok(emitter);
+        } catch (RuntimeException ex) {
+            return eventStreamError(ex);
+        }
+    }
+
+    @GetMapping(value = "/rider/{riderId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> subscribeToRider(@PathVariable String riderId) {
+        log.debug("Opening event stream for riderId: {}", riderId);
+        try {
+            return ResponseEntity.ok(rideSubscriptions.subscribeToRider(riderId));
+        } catch (RuntimeException ex) {
+            return eventStreamError(ex);
+        }
+    }
+
+    @GetMapping(value = "/driver/{driverId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> subscribeToDriver(@PathVariable String driverId) {
+        log.debug("Opening event stream for driverId: {}", driverId);
+        try {
+            return ResponseEntity.ok(rideSubscriptions.subscribeToDriver(driverId));
+        } catch (RuntimeException ex) {
+            return eventStreamError(ex);
+        }
+    }
+
+    private ResponseEntity<ErrorResponseDto> eventStreamError(RuntimeException ex) {
+        log.error("Error opening event stream: {}", ex.getMessage());
+        int status = ex.getMessage().contains("No ride found") ? 404
+                : ex.getMessage().contains("Too many") ? 503 : 400;
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(
+            ErrorResponseDto.builder()
+                .error(status == 404 ? "NOT_FOUND" : status == 503 ? "UNAVAILABLE" : "BAD_REQUEST")
+                .message(ex.getMessage())
+                .build()
+        );
+    }
+
     @GetMapping("/rider/{riderId}")
-    public ResponseEntity<java.util.List<ScheduledRideResponseDto>> getRidesByRider(@PathVariable String riderId) {
+    public ResponseEntity<java.util.List<ScheduledRideResponseDto>> getRidesByRider(@PathVariable String riderId,
+                                                                                 WebRequest webRequest) {
         log.debug("Fetching rides for riderId: {}", riderId);
         try {
+            if (webRequest.checkNotModified(scheduledRideService.getRiderRidesVersion(riderId, null, java.util.List.of()))) {
+                return null;
+            }
             java.util.List<ScheduledRideResponseDto> rides = scheduledRideService.getRidesByRiderId(riderId);
             log.debug("Found {} rides for riderId: {}", rides.size(), riderId);
             return ResponseEntity.ok(rides);
@@ -124,6 +295,69 @@ public class ScheduledRideController {
         }
     }
 
+    /**
+     * One page of a rider's upcoming (soonest first) or past (latest first) rides.
+     */
+    @GetMapping("/rider/{riderId}/{timeline:upcoming|past}")
+    public ResponseEntity<?> getRiderRides(
+            @PathVariable String riderId,
+            @PathVariable String timeline,
+            @RequestParam(required = false) java.util.List<String> status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        log.debug("Fetching {} rides for riderId: {} - status: {}, page: {}, size: {}", timeline, riderId, status, page, size);
+        try {
+            boolean upcoming = "upcoming".equals(timeline);
+            java.util.List<ScheduledRideStatus> statuses = parseStatuses(status);
+            if (webRequest.checkNotModified(scheduledRideService.getRiderRidesVersion(riderId, upcoming, statuses))) {
+                return null;
+            }
+            ScheduledRideSliceDto rides = scheduledRideService.getRiderRides(
+                    riderId, upcoming, statuses, page, size);
+            log.debug("Found {} {} rides for riderId: {}", rides.getItems().size(), timeline, riderId);
+            return ResponseEntity.ok(rides);
+        } catch (RuntimeException ex) {
+            log.error("Error fetching rides: {}", ex.getMessage());
+            return ResponseEntity.status(400).body(
+                ErrorResponseDto.builder()
+                    .error("BAD_REQUEST")
+                    .message(ex.getMessage())
+                    .build()
+            );
+        }
+    }
+
+    @GetMapping("/driver/{driverId}/{timeline:upcoming|past}")
+    public ResponseEntity<?> getDriverRides(
+            @PathVariable String driverId,
+            @PathVariable String timeline,
+            @RequestParam(required = false) java.util.List<String> status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        log.debug("Fetching {} rides for driverId: {} - status: {}, page: {}, size: {}", timeline, driverId, status, page, size);
+        try {
+            boolean upcoming = "upcoming".equals(timeline);
+            java.util.List<ScheduledRideStatus> statuses = parseStatuses(status);
+            if (webRequest.checkNotModified(scheduledRideService.getDriverRidesVersion(driverId, upcoming, statuses))) {
+                return null;
+            }
+            ScheduledRideSliceDto rides = scheduledRideService.getDriverRides(
+                    driverId, upcoming, statuses, page, size);
+            log.debug("Found {} {} rides for driverId: {}", rides.getItems().size(), timeline, driverId);
+            return ResponseEntity.ok(rides);
+        } catch (RuntimeException ex) {
+            log.error("Error fetching rides: {}", ex.getMessage());
+            return ResponseEntity.status(400).body(
+                ErrorResponseDto.builder()
+                    .error("BAD_REQUEST")
+                    .message(ex.getMessage())
+                    .build()
+            );
+        }
+    }
+
     @PutMapping("/{rideId}/assign-driver/{driverId}")
     public ResponseEntity<ScheduledRideResponseDto> assignDriver(
             @PathVariable String rideId,
@@ -0,0 +1,20 @@
+package com.thirikkale.scheduledrideservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter @Builder @NoArgsConstructor @AllArgsConstructor
+public class ActiveIndexConsistencyDto {
+    private Boolean ready;
+    private Boolean consistent;
+    private Integer indexedCount;
+    private Integer storedCount;
+
+    // Active in MongoDB but not in the index
+    private List<String> missingFromIndex;
+    // In the index but no longer active in MongoDB
+    private List<String> staleInIndex;
+    // Present in both with a different status or updatedAt
+    private List<String> mismatched;
+}
@@ -22,4 +22,14 @@ public class RouteMatchRequestDto {
     
     @Builder.Default
     private Double dropoffRadiusKm = 5.0;
+
+    // Optional: return only the best matches, capped at api.rides.routeMatch.maxLimit; all matches when absent
+    private Integer limit;
+
+    // Score = pickupWeight * pickupDistanceKm + dropoffWeight * dropoffDistanceKm, lower is better
+    @Builder.Default
+    private Double pickupWeight = 1.0;
+
+    @Builder.Default
+    private Double dropoffWeight = 1.0;
 }
@@ -21,8 +21,11 @@ public class RouteMatchResponseDto {
     private Double dropoffLongitude;
     private Double dropoffDistanceKm;
     
-    // Total matching score (lower is better)
+    // Pickup plus dropoff distance
     private Double totalDistanceKm;
+
+    // Weighted matching score (lower is better); equals totalDistanceKm with the default weights
+    private Double score;
     
     // Ride details
     private Instant scheduledTime;
@@ -0,0 +1,12 @@
+package com.thirikkale.scheduledrideservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter @Builder @NoArgsConstructor @AllArgsConstructor
+public class ScheduledRidePageDto {
+    private List<ScheduledRideResponseDto> items;
+    // Pass back as ?cursor= for the next page; null on the last page
+    private String nextCursor;
+}
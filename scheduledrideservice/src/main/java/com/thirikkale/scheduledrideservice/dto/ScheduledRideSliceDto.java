@@ -0,0 +1,13 @@
+package com.thirikkale.scheduledrideservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter @Builder @NoArgsConstructor @AllArgsConstructor
+public class ScheduledRideSliceDto {
+    private List<ScheduledRideResponseDto> items;
+    private Integer page;
+    private Integer size;
+    private Boolean hasNext;
+}
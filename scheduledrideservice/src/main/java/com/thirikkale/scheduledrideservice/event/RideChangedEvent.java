@@ -0,0 +1,14 @@
+package com.thirikkale.scheduledrideservice.event;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+
+import java.util.List;
+
+/**
+ * Post-write state of rides changed by one committed write.
+ *
+ * @param previousDriverIds drivers the rides were taken away from
+ * @param remote            true when the write happened on another replica and was relayed here
+ */
+public record RideChangedEvent(List<ScheduledRide> rides, List<String> previousDriverIds, boolean remote) {
+}
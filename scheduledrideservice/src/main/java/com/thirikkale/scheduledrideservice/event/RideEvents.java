@@ -0,0 +1,37 @@
+package com.thirikkale.scheduledrideservice.event;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * In-process bus for ride state changes. Write paths publish here once their change is
+ * committed; cache invalidation and the SSE subscriptions listen.
+ */
+@Component
+@RequiredArgsConstructor
+public class RideEvents {
+
+    private final ApplicationEventPublisher publisher;
+
+    public void rideChanged(ScheduledRide ride) {
+        ridesChanged(List.of(ride), List.of());
+    }
+
+    public void ridesChanged(Collection<ScheduledRide> rides, Collection<String> previousDriverIds) {
+        if (rides.isEmpty()) return;
+        publisher.publishEvent(new RideChangedEvent(List.copyOf(rides), List.copyOf(previousDriverIds), false));
+    }
+
+    /**
+     * Replays a change made on another replica to the local listeners.
+     */
+    public void remoteRidesChanged(Collection<ScheduledRide> rides, Collection<String> previousDriverIds) {
+        if (rides.isEmpty()) return;
+        publisher.publishEvent(new RideChangedEvent(List.copyOf(rides), List.copyOf(previousDriverIds), true));
+    }
+}
@@ -0,0 +1,182 @@
+package com.thirikkale.scheduledrideservice.event;
+
+import com.thirikkale.scheduledrideservice.dto.ScheduledRideResponseDto;
+import com.thirikkale.scheduledrideservice.mapper.ScheduledRideMapper;
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Server-sent event subscriptions to a ride, a rider's rides or a driver's rides.
+ *
+ * Emitters run on async servlet requests, so an idle subscriber holds a connection but no
+ * thread. Every {@link RideChangedEvent}, local or relayed from another replica, is pushed
+ * to the matching subscribers from a small sender pool (virtual threads when enabled),
+ * keeping slow clients off the write path. Heartbeat comments keep proxies from closing idle streams and flush out dead ones.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RideSubscriptions {
+
+    private static final String RIDE_KEY = "ride:";
+    private static final String RIDER_KEY = "rider:";
+    private static final String DRIVER_KEY = "driver:";
+
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+
+    @Value("${rides.events.timeoutMinutes:30}") private long timeoutMinutes;
+    @Value("${rides.events.maxSubscribers:50000}") private int maxSubscribers;
+    @Value("${rides.events.senderThreads:4}") private int senderThreads;
+
+    private final Map<String, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger count = new AtomicInteger();
+    private TaskExecutor senders;
+
+    @PostConstruct
+    void init() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            senders = new VirtualThreadTaskExecutor("ride-events-");
+        } else {
+            ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+            pool.setCorePoolSize(senderThreads);
+            pool.setMaxPoolSize(senderThreads);
+            pool.setThreadNamePrefix("ride-events-");
+            pool.setDaemon(true);
+            pool.initialize();
+            senders = pool;
+        }
+        Gauge.builder("scheduled_rides.events.subscribers", count, AtomicInteger::get)
+                .description("Open ride event streams")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (senders instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+    }
+
+    public SseEmitter subscribeToRide(String rideId) {
+        return subscribe(RIDE_KEY + rideId);
+    }
+
+    public SseEmitter subscribeToRider(String riderId) {
+        return subscribe(RIDER_KEY + riderId);
+    }
+
+    public SseEmitter subscribeToDriver(String driverId) {
+        return subscribe(DRIVER_KEY + driverId);
+    }
+
+    private SseEmitter subscribe(String key) {
+        if (count.incrementAndGet() > maxSubscribers) {
+            count.decrementAndGet();
+            throw new RuntimeException("Too many open ride event streams, poll instead");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMinutes * 60_000);
+        subscribers.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(emitter);
+        Runnable remove = () -> unsubscribe(key, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        return emitter;
+    }
+
+    private void unsubscribe(String key, SseEmitter emitter) {
+        Set<SseEmitter> emitters = subscribers.get(key);
+        if (emitters != null && emitters.remove(emitter)) {
+            count.decrementAndGet();
+            if (emitters.isEmpty()) {
+                subscribers.remove(key, emitters);
+            }
+        }
+    }
+
+    @EventListener
+    public void onRideChanged(RideChangedEvent event) {
+        if (subscribers.isEmpty()) return;
+        for (ScheduledRide ride : event.rides()) {
+            Set<String> keys = new LinkedHashSet<>();
+            keys.add(RIDE_KEY + ride.getId());
+            if (ride.getRiderId() != null) keys.add(RIDER_KEY + ride.getRiderId());
+            if (ride.getDriverId() != null && !ride.getDriverId().isEmpty()) keys.add(DRIVER_KEY + ride.getDriverId());
+            event.previousDriverIds().forEach(d -> keys.add(DRIVER_KEY + d));
+            keys.removeIf(k -> !subscribers.containsKey(k));
+            if (keys.isEmpty()) continue;
+            // Mapped here because the writer may keep modifying its entities after publishing
+            ScheduledRideResponseDto dto = ScheduledRideMapper.toDto(ride);
+            for (String key : keys) {
+                send(key, () -> SseEmitter.event().name("ride").id(ride.getId() + "-" + updatedAt(ride)).data(dto));
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${rides.events.heartbeatMillis:25000}")
+    public void heartbeat() {
+        for (String key : subscribers.keySet()) {
+            send(key, () -> SseEmitter.event().comment("keep-alive"));
+        }
+    }
+
+    /**
+     * Pushes the current state of a ride to a single new subscriber.
+     */
+    public void sendInitial(SseEmitter emitter, ScheduledRideResponseDto ride) {
+        try {
+            emitter.send(SseEmitter.event().name("ride").data(ride));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    // Builders are single-use, so each emitter gets a fresh one
+    private void send(String key, Supplier<SseEmitter.SseEventBuilder> event) {
+        Set<SseEmitter> emitters = subscribers.get(key);
+        if (emitters == null) return;
+        try {
+            senders.execute(() -> {
+                for (SseEmitter emitter : emitters) {
+                    try {
+                        emitter.send(event.get());
+                    } catch (IOException | IllegalStateException e) {
+                        // Client went away; the completion callback removes it
+                        emitter.completeWithError(e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Dropped ride event for {}, sender pool is shut down", key);
+        }
+    }
+
+    private static long updatedAt(ScheduledRide ride) {
+        return ride.getUpdatedAt() == null ? 0 : ride.getUpdatedAt().toEpochMilli();
+    }
+}
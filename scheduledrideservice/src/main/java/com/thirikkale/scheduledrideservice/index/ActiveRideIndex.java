@@ -0,0 +1,549 @@
+package com.thirikkale.scheduledrideservice.index;
+
+import com.thirikkale.scheduledrideservice.dto.ActiveIndexConsistencyDto;
+import com.thirikkale.scheduledrideservice.model.NearbyRideResult;
+import com.thirikkale.scheduledrideservice.model.RouteMatchResult;
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
+import com.thirikkale.scheduledrideservice.repository.ScheduledRideRepository;
+import com.thirikkale.scheduledrideservice.util.GeoBatchFilter;
+import com.thirikkale.scheduledrideservice.util.GeoKernel;
+import com.thirikkale.scheduledrideservice.util.RouteMatchSelector;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Resident index of the rides that proximity searches and shared matching care about
+ * (SCHEDULED and GROUPING). Rides are bucketed into a lat/lng grid by pickup and by dropoff,
+ * and into fixed time buckets by scheduledTime. Grid cells hold their coordinates in parallel
+ * arrays, which radius searches scan with the {@link GeoBatchFilter}.
+ *
+ * The index is cold-loaded from MongoDB at startup and then kept current by the service
+ * write paths via {@link #apply(ScheduledRide)}. Until the first load completes (or when it
+ * is disabled) {@link #isReady()} is false and callers fall back to MongoDB queries.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ActiveRideIndex {
+
+    public static final Set<ScheduledRideStatus> INDEXED_STATUSES =
+            EnumSet.of(ScheduledRideStatus.SCHEDULED, ScheduledRideStatus.GROUPING);
+
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+    // Same rounding allowance as GeoKernel's bounding boxes, keeps the ring bounds conservative
+    private static final double RING_SLACK_DEGREES = 1e-9;
+    private static final GeoBatchFilter GEO_FILTER = GeoBatchFilter.get();
+
+    private final ScheduledRideRepository repo;
+
+    @Value("${scheduler.activeIndex.enabled:true}") private boolean enabled;
+    @Value("${scheduler.activeIndex.cellSizeDegrees:0.01}") private double cellSizeDegrees;
+    @Value("${scheduler.activeIndex.timeBucketMinutes:15}") private int timeBucketMinutes;
+
+    // Grid columns around the globe; set on first use
+    private long lngColumns;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Snapshot snapshot = new Snapshot();
+    private volatile boolean ready;
+
+    // Writes that land while a rebuild is reading MongoDB are replayed on top of the new snapshot;
+    // rebuilds take turns, since they share this state
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private boolean rebuilding;
+    private final List<ScheduledRide> deferred = new ArrayList<>();
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return snapshot.rides.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PostConstruct
+    void checkGrid() {
+        // Columns only wrap cleanly when a whole number of cells spans the globe
+        if (Math.abs(lngColumns() * cellSizeDegrees - 360) > 1e-9) {
+            throw new IllegalStateException("scheduler.activeIndex.cellSizeDegrees must divide 360: " + cellSizeDegrees);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void coldLoad() {
+        if (!enabled) {
+            log.info("Active ride index disabled - proximity queries will use MongoDB");
+            return;
+        }
+        try {
+            int loaded = rebuild();
+            log.info("Active ride index loaded with {} rides", loaded);
+        } catch (Exception e) {
+            log.error("Failed to load active ride index - proximity queries will use MongoDB", e);
+        }
+    }
+
+    /**
+     * Reloads every SCHEDULED/GROUPING ride from MongoDB and swaps it in atomically. A call made
+     * while another rebuild runs waits for it and then reloads again.
+     *
+     * @return number of rides in the new index
+     */
+    public int rebuild() {
+        rebuildLock.lock();
+        try {
+            return rebuildExclusively();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private int rebuildExclusively() {
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+            deferred.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Snapshot fresh = new Snapshot();
+        try {
+            for (ScheduledRide ride : repo.findByStatusIn(INDEXED_STATUSES)) {
+                fresh.put(ride.toBuilder().build());
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                deferred.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (ScheduledRide ride : deferred) {
+                fresh.apply(ride);
+            }
+            deferred.clear();
+            rebuilding = false;
+            snapshot = fresh;
+            ready = true;
+            return fresh.rides.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records the post-write state of a ride. Active rides are inserted or moved,
+     * anything else is dropped from the index.
+     */
+    public void apply(ScheduledRide ride) {
+        if (!enabled || ride == null || ride.getId() == null) {
+            return;
+        }
+        ScheduledRide copy = ride.toBuilder().build();
+        lock.writeLock().lock();
+        try {
+            snapshot.apply(copy);
+            if (rebuilding) {
+                deferred.add(copy);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void applyAll(Collection<ScheduledRide> rides) {
+        rides.forEach(this::apply);
+    }
+
+    /**
+     * Forgets removals written before the given time. A write older than that arriving now is
+     * left to the reconcile pass.
+     *
+     * @return number of tombstones dropped
+     */
+    public int expireTombstones(Instant before) {
+        lock.writeLock().lock();
+        try {
+            int size = snapshot.tombstones.size();
+            snapshot.tombstones.values().removeIf(removedAt -> removedAt.isBefore(before));
+            return size - snapshot.tombstones.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rides whose pickup lies within radiusKm of the point, nearest first.
+     */
+    public List<NearbyRideResult> findNearPickup(double latitude, double longitude, double radiusKm) {
+        return findNear(latitude, longitude, radiusKm, true);
+    }
+
+    /**
+     * Rides whose dropoff lies within radiusKm of the point, nearest first.
+     */
+    public List<NearbyRideResult> findNearDropoff(double latitude, double longitude, double radiusKm) {
+        return findNear(latitude, longitude, radiusKm, false);
+    }
+
+    /**
+     * The selector's best matches. Grid cells around the end it weights more are visited in
+     * square rings of increasing distance, and the search stops at the first ring whose nearest
+     * possible point is outside that radius or could not beat the current k-th best score, so
+     * the work done follows k rather than the number of rides inside the radius.
+     */
+    public List<RouteMatchResult> findRouteMatches(RouteMatchSelector selector) {
+        boolean byPickup = selector.pickupWeight() >= selector.dropoffWeight();
+        GeoKernel.Circle area = byPickup ? selector.pickupArea() : selector.dropoffArea();
+        double weight = byPickup ? selector.pickupWeight() : selector.dropoffWeight();
+        double latitude = area.latitude();
+        double longitude = area.longitude();
+        double latSpan = area.radiusKm() / KM_PER_DEGREE_LAT;
+        double lngSpan = area.radiusKm() / (KM_PER_DEGREE_LAT * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+        long latCell = cell(latitude);
+        long lngCell = cell(longitude);
+        long maxRing = Math.max(
+                Math.max(latCell - cell(latitude - latSpan), cell(latitude + latSpan) - latCell),
+                Math.max(lngCell - cell(longitude - lngSpan), cell(longitude + lngSpan) - lngCell));
+
+        RouteSearch search = new RouteSearch(selector, area, byPickup);
+        lock.readLock().lock();
+        try {
+            Map<Long, CellBlock> cells = byPickup ? snapshot.pickupCells : snapshot.dropoffCells;
+            long cellCount = (2 * maxRing + 1) * (2 * maxRing + 1);
+            // A ring wider than the globe would visit wrapped columns twice
+            if (cellCount > cells.size() || 2 * maxRing + 3 >= lngColumns()) {
+                // Radius covers more cells than are occupied, visiting every block is cheaper
+                cells.values().forEach(search::collect);
+            } else {
+                // Ends on the bounds alone: the latitude gap grows by a cell per ring, even near the poles
+                for (long ring = 0; ; ring++) {
+                    double nearestKm = ringDistanceKm(latitude, longitude, latCell, lngCell, ring);
+                    if (nearestKm > area.radiusKm() || weight * nearestKm >= selector.threshold()) break;
+                    visitRing(cells, latCell, lngCell, ring, search);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return selector.results();
+    }
+
+    private void visitRing(Map<Long, CellBlock> cells, long latCell, long lngCell, long ring,
+                                  RouteSearch search) {
+        if (ring == 0) {
+            search.collect(cells.get(cellKey(latCell, lngCell)));
+            return;
+        }
+        for (long lng = lngCell - ring; lng <= lngCell + ring; lng++) {
+            search.collect(cells.get(cellKey(latCell - ring, lng)));
+            search.collect(cells.get(cellKey(latCell + ring, lng)));
+        }
+        for (long lat = latCell - ring + 1; lat <= latCell + ring - 1; lat++) {
+            search.collect(cells.get(cellKey(lat, lngCell - ring)));
+            search.collect(cells.get(cellKey(lat, lngCell + ring)));
+        }
+    }
+
+    /**
+     * Lower bound on the distance from the point to any point in the given ring of cells around
+     * its own cell: the distance to the nearest edge of the box formed by the inner rings. A
+     * parallel is reached along the meridian; the distance to a meridian offset by dLng is
+     * asin(cos(lat) * sin(dLng)).
+     */
+    private double ringDistanceKm(double latitude, double longitude, long latCell, long lngCell, long ring) {
+        if (ring == 0) return 0;
+        double latGap = Math.min(latitude - (latCell - ring + 1) * cellSizeDegrees,
+                (latCell + ring) * cellSizeDegrees - latitude);
+        double lngGap = Math.min(longitude - (lngCell - ring + 1) * cellSizeDegrees,
+                (lngCell + ring) * cellSizeDegrees - longitude);
+        latGap = Math.max(0, latGap - RING_SLACK_DEGREES);
+        lngGap = Math.min(90, Math.max(0, lngGap - RING_SLACK_DEGREES));
+        double toMeridian = Math.asin(Math.cos(Math.toRadians(latitude)) * Math.sin(Math.toRadians(lngGap)));
+        return GeoKernel.EARTH_RADIUS_KM * Math.min(Math.toRadians(latGap), toMeridian);
+    }
+
+    /**
+     * Shared rides in the given status with scheduledTime in [start, end]. Returns copies
+     * so callers can mutate them before persisting.
+     */
+    public List<ScheduledRide> findSharedInWindow(ScheduledRideStatus status, Instant start, Instant end) {
+        lock.readLock().lock();
+        try {
+            List<ScheduledRide> result = new ArrayList<>();
+            for (Set<String> bucket : snapshot.timeBuckets.subMap(timeBucket(start), true, timeBucket(end), true).values()) {
+                for (String id : bucket) {
+                    ScheduledRide ride = snapshot.rides.get(id);
+                    if (Boolean.TRUE.equals(ride.getIsSharedRide())
+                            && ride.getStatus() == status
+                            && !ride.getScheduledTime().isBefore(start)
+                            && !ride.getScheduledTime().isAfter(end)) {
+                        result.add(ride.toBuilder().build());
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Compares the index against the SCHEDULED/GROUPING rides currently stored in MongoDB.
+     */
+    public ActiveIndexConsistencyDto verifyAgainstMongo() {
+        Map<String, ScheduledRide> stored = new HashMap<>();
+        for (ScheduledRide ride : repo.findByStatusIn(INDEXED_STATUSES)) {
+            stored.put(ride.getId(), ride);
+        }
+
+        List<String> missing = new ArrayList<>();
+        List<String> stale = new ArrayList<>();
+        List<String> mismatched = new ArrayList<>();
+        int indexed;
+        lock.readLock().lock();
+        try {
+            indexed = snapshot.rides.size();
+            for (ScheduledRide ride : stored.values()) {
+                ScheduledRide cached = snapshot.rides.get(ride.getId());
+                if (cached == null) {
+                    missing.add(ride.getId());
+                } else if (cached.getStatus() != ride.getStatus()
+                        || !Objects.equals(cached.getUpdatedAt(), ride.getUpdatedAt())) {
+                    mismatched.add(ride.getId());
+                }
+            }
+            for (String id : snapshot.rides.keySet()) {
+                if (!stored.containsKey(id)) {
+                    stale.add(id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return ActiveIndexConsistencyDto.builder()
+                .ready(isReady())
+                .indexedCount(indexed)
+                .storedCount(stored.size())
+                .missingFromIndex(missing)
+                .staleInIndex(stale)
+                .mismatched(mismatched)
+                .consistent(missing.isEmpty() && stale.isEmpty() && mismatched.isEmpty())
+                .build();
+    }
+
+    private List<NearbyRideResult> findNear(double latitude, double longitude, double radiusKm, boolean pickup) {
+        double latSpan = radiusKm / KM_PER_DEGREE_LAT;
+        double lngSpan = radiusKm / (KM_PER_DEGREE_LAT * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+        long minLatCell = cell(latitude - latSpan);
+        long maxLatCell = cell(latitude + latSpan);
+        long minLngCell = cell(longitude - lngSpan);
+        long maxLngCell = cell(longitude + lngSpan);
+
+        Search search = new Search(GeoKernel.circle(latitude, longitude, radiusKm));
+        lock.readLock().lock();
+        try {
+            Map<Long, CellBlock> cells = pickup ? snapshot.pickupCells : snapshot.dropoffCells;
+            long cellCount = (maxLatCell - minLatCell + 1) * (maxLngCell - minLngCell + 1);
+            // A box wider than the globe would visit wrapped columns twice
+            if (cellCount > cells.size() || maxLngCell - minLngCell + 1 >= lngColumns()) {
+                // Radius covers more cells than are occupied, visiting every block is cheaper
+                cells.values().forEach(search::collect);
+            } else {
+                for (long latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+                    for (long lngCell = minLngCell; lngCell <= maxLngCell; lngCell++) {
+                        CellBlock block = cells.get(cellKey(latCell, lngCell));
+                        if (block != null) search.collect(block);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        search.result.sort(Comparator.comparingDouble(NearbyRideResult::getDistanceMeters));
+        return search.result;
+    }
+
+    /**
+     * One radius query over cell blocks, reusing its scratch buffers from block to block.
+     */
+    private static class Search {
+        final GeoKernel.Circle area;
+        final List<NearbyRideResult> result = new ArrayList<>();
+        int[] within = new int[0];
+        double[] distancesKm = new double[0];
+
+        Search(GeoKernel.Circle area) {
+            this.area = area;
+        }
+
+        void collect(CellBlock block) {
+            if (within.length < block.size) {
+                within = new int[block.lats.length];
+                distancesKm = new double[block.lats.length];
+            }
+            int found = GEO_FILTER.filter(area, block.lats, block.lngs, block.size, within, distancesKm);
+            for (int k = 0; k < found; k++) {
+                result.add(new NearbyRideResult(block.rides[within[k]], distancesKm[k] * 1000.0));
+            }
+        }
+    }
+
+    /**
+     * Feeds the rides of each visited cell that fall inside the searched end's circle to the selector.
+     */
+    private static class RouteSearch {
+        final RouteMatchSelector selector;
+        final GeoKernel.Circle area;
+        final boolean byPickup;
+        int[] within = new int[0];
+        double[] distancesKm = new double[0];
+
+        RouteSearch(RouteMatchSelector selector, GeoKernel.Circle area, boolean byPickup) {
+            this.selector = selector;
+            this.area = area;
+            this.byPickup = byPickup;
+        }
+
+        void collect(CellBlock block) {
+            if (block == null) return;
+            if (within.length < block.size) {
+                within = new int[block.lats.length];
+                distancesKm = new double[block.lats.length];
+            }
+            int found = GEO_FILTER.filter(area, block.lats, block.lngs, block.size, within, distancesKm);
+            for (int k = 0; k < found; k++) {
+                if (byPickup) {
+                    selector.offerByPickup(block.rides[within[k]], distancesKm[k]);
+                } else {
+                    selector.offerByDropoff(block.rides[within[k]], distancesKm[k]);
+                }
+            }
+        }
+    }
+
+    private long cell(double degrees) {
+        return (long) Math.floor(degrees / cellSizeDegrees);
+    }
+
+    /**
+     * Longitude columns wrap at the antimeridian, so a query box running past ±180° reaches the
+     * cells on the other side. Columns at -180° and 180° are the same column.
+     */
+    private long cellKey(long latCell, long lngCell) {
+        return (latCell << 32) | (Math.floorMod(lngCell, lngColumns()) & 0xffffffffL);
+    }
+
+    private long lngColumns() {
+        long columns = lngColumns;
+        if (columns == 0) {
+            columns = Math.round(360 / cellSizeDegrees);
+            lngColumns = columns;
+        }
+        return columns;
+    }
+
+    private long timeBucket(Instant time) {
+        return Math.floorDiv(time.getEpochSecond(), timeBucketMinutes * 60L);
+    }
+
+    /**
+     * The index structures; only touched under {@link #lock} once published.
+     */
+    private class Snapshot {
+        final Map<String, ScheduledRide> rides = new HashMap<>();
+        final Map<Long, CellBlock> pickupCells = new HashMap<>();
+        final Map<Long, CellBlock> dropoffCells = new HashMap<>();
+        final NavigableMap<Long, Set<String>> timeBuckets = new TreeMap<>();
+        // updatedAt of rides that left the index, so a late write of an older state cannot re-insert
+        // them; expired by the reconcile pass and dropped with the snapshot at the next rebuild
+        final Map<String, Instant> tombstones = new HashMap<>();
+
+        void apply(ScheduledRide ride) {
+            ScheduledRide existing = rides.get(ride.getId());
+            if (existing != null && existing.getUpdatedAt() != null && ride.getUpdatedAt() != null
+                    && ride.getUpdatedAt().isBefore(existing.getUpdatedAt())) {
+                return; // out-of-order write, keep the newer state
+            }
+            Instant removedAt = tombstones.get(ride.getId());
+            if (removedAt != null && ride.getUpdatedAt() != null && !ride.getUpdatedAt().isAfter(removedAt)) {
+                return; // older than the write that removed it
+            }
+            boolean removed = remove(ride.getId());
+            if (INDEXED_STATUSES.contains(ride.getStatus())) {
+                tombstones.remove(ride.getId());
+                put(ride);
+            } else if (removed && ride.getUpdatedAt() != null) {
+                tombstones.put(ride.getId(), ride.getUpdatedAt());
+            }
+        }
+
+        void put(ScheduledRide ride) {
+            rides.put(ride.getId(), ride);
+            if (ride.getPickupLatitude() != null && ride.getPickupLongitude() != null) {
+                pickupCells.computeIfAbsent(cellKey(cell(ride.getPickupLatitude()), cell(ride.getPickupLongitude())),
+                        k -> new CellBlock()).add(ride, ride.getPickupLatitude(), ride.getPickupLongitude());
+            }
+            if (ride.getDropoffLatitude() != null && ride.getDropoffLongitude() != null) {
+                dropoffCells.computeIfAbsent(cellKey(cell(ride.getDropoffLatitude()), cell(ride.getDropoffLongitude())),
+                        k -> new CellBlock()).add(ride, ride.getDropoffLatitude(), ride.getDropoffLongitude());
+            }
+            if (ride.getScheduledTime() != null) {
+                timeBuckets.computeIfAbsent(timeBucket(ride.getScheduledTime()), k -> new HashSet<>()).add(ride.getId());
+            }
+        }
+
+        boolean remove(String id) {
+            ScheduledRide ride = rides.remove(id);
+            if (ride == null) return false;
+            if (ride.getPickupLatitude() != null && ride.getPickupLongitude() != null) {
+                detachFromCell(pickupCells, cellKey(cell(ride.getPickupLatitude()), cell(ride.getPickupLongitude())), id);
+            }
+            if (ride.getDropoffLatitude() != null && ride.getDropoffLongitude() != null) {
+                detachFromCell(dropoffCells, cellKey(cell(ride.getDropoffLatitude()), cell(ride.getDropoffLongitude())), id);
+            }
+            if (ride.getScheduledTime() != null) {
+                detach(timeBuckets, timeBucket(ride.getScheduledTime()), id);
+            }
+            return true;
+        }
+
+        private void detachFromCell(Map<Long, CellBlock> cells, long key, String id) {
+            CellBlock block = cells.get(key);
+            if (block == null) return;
+            block.remove(id);
+            if (block.isEmpty()) cells.remove(key);
+        }
+
+        private void detach(Map<Long, Set<String>> buckets, long key, String id) {
+            Set<String> ids = buckets.get(key);
+            if (ids == null) return;
+            ids.remove(id);
+            if (ids.isEmpty()) buckets.remove(key);
+        }
+    }
+}
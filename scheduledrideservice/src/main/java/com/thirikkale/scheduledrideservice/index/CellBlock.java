@@ -0,0 +1,54 @@
+package com.thirikkale.scheduledrideservice.index;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+
+import java.util.Arrays;
+
+/**
+ * The rides of one grid cell with their coordinates copied into parallel arrays, so a radius
+ * search can hand the whole cell to a {@link com.thirikkale.scheduledrideservice.util.GeoBatchFilter}.
+ * Not thread-safe; guarded by the index lock.
+ */
+class CellBlock {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    ScheduledRide[] rides = new ScheduledRide[INITIAL_CAPACITY];
+    double[] lats = new double[INITIAL_CAPACITY];
+    double[] lngs = new double[INITIAL_CAPACITY];
+    int size;
+
+    void add(ScheduledRide ride, double lat, double lng) {
+        if (size == rides.length) {
+            int capacity = size * 2;
+            rides = Arrays.copyOf(rides, capacity);
+            lats = Arrays.copyOf(lats, capacity);
+            lngs = Arrays.copyOf(lngs, capacity);
+        }
+        rides[size] = ride;
+        lats[size] = lat;
+        lngs[size] = lng;
+        size++;
+    }
+
+    /**
+     * Removes the ride by moving the last one into its slot; cells are small, so the id is
+     * found by a linear scan.
+     */
+    void remove(String rideId) {
+        for (int i = 0; i < size; i++) {
+            if (rides[i].getId().equals(rideId)) {
+                size--;
+                rides[i] = rides[size];
+                lats[i] = lats[size];
+                lngs[i] = lngs[size];
+                rides[size] = null;
+                return;
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -1,7 +1,11 @@
 package com.thirikkale.scheduledrideservice.mapper;
 
+import com.thirikkale.scheduledrideservice.dto.NearbyUserResponseDto;
+import com.thirikkale.scheduledrideservice.dto.RouteMatchResponseDto;
 import com.thirikkale.scheduledrideservice.dto.ScheduledRideCreateRequestDto;
 import com.thirikkale.scheduledrideservice.dto.ScheduledRideResponseDto;
+import com.thirikkale.scheduledrideservice.model.GeoJsonPoint;
+import com.thirikkale.scheduledrideservice.model.RouteMatchResult;
 import com.thirikkale.scheduledrideservice.model.ScheduledRide;
 import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
 
@@ -9,12 +13,12 @@ import java.time.Instant;
 
 /**
  * Mapper utility for converting between ScheduledRide entities and DTOs
- * Uses manual coordinate handling without GeoJSON
+ * Keeps the GeoJSON pickup/dropoff points in sync with the raw lat/lng fields
  */
 public class ScheduledRideMapper {
 
     /**
-     * Maps DTO to entity with regular latitude/longitude coordinates
+     * Maps DTO to entity with latitude/longitude coordinates and their GeoJSON points
      */
     public static ScheduledRide toEntity(ScheduledRideCreateRequestDto dto) {
         if (dto == null) {
@@ -27,9 +31,11 @@ public class ScheduledRideMapper {
                 .pickupAddress(dto.getPickupAddress())
                 .pickupLatitude(dto.getPickupLatitude())
                 .pickupLongitude(dto.getPickupLongitude())
+                .pickupLocation(GeoJsonPoint.of(dto.getPickupLatitude(), dto.getPickupLongitude()))
                 .dropoffAddress(dto.getDropoffAddress())
                 .dropoffLatitude(dto.getDropoffLatitude())
                 .dropoffLongitude(dto.getDropoffLongitude())
+                .dropoffLocation(GeoJsonPoint.of(dto.getDropoffLatitude(), dto.getDropoffLongitude()))
                 .passengers(dto.getPassengers())
                 .isSharedRide(dto.getIsSharedRide())
                 .scheduledTime(dto.getScheduledTime())
@@ -82,6 +88,66 @@ public class ScheduledRideMapper {
                 .build();
     }
 
+    /**
+     * Maps a proximity search hit, rounding the distance to two decimals
+     */
+    public static NearbyUserResponseDto toNearbyDto(ScheduledRide ride, double distanceKm) {
+        return NearbyUserResponseDto.builder()
+                .id(ride.getId())
+                .riderId(ride.getRiderId())
+                .pickupAddress(ride.getPickupAddress())
+                .pickupLatitude(ride.getPickupLatitude())
+                .pickupLongitude(ride.getPickupLongitude())
+                .dropoffAddress(ride.getDropoffAddress())
+                .dropoffLatitude(ride.getDropoffLatitude())
+                .dropoffLongitude(ride.getDropoffLongitude())
+                .distanceKm(Math.round(distanceKm * 100.0) / 100.0)
+                .scheduledTime(ride.getScheduledTime())
+                .status(ride.getStatus().name())
+                .passengers(ride.getPassengers())
+                .isSharedRide(ride.getIsSharedRide())
+                .sharedGroupId(ride.getSharedGroupId())
+                .rideType(ride.getRideType())
+                .vehicleType(ride.getVehicleType())
+                .rideDistanceKm(ride.getDistanceKm())
+                .waitingTimeMin(ride.getWaitingTimeMin())
+                .isWomenOnly(ride.getIsWomenOnly())
+                .driverId(ride.getDriverId())
+                .maxFare(ride.getMaxFare())
+                .specialRequests(ride.getSpecialRequests())
+                .estimatedFare(ride.getEstimatedFare())
+                .estimatedDistanceKm(ride.getEstimatedDistanceKm())
+                .estimatedDurationMin(ride.getEstimatedDurationMin())
+                .build();
+    }
+
+    /**
+     * Maps a route match with its pickup and dropoff distances, rounded to two decimals
+     */
+    public static RouteMatchResponseDto toRouteMatchDto(RouteMatchResult match) {
+        ScheduledRide ride = match.getRide();
+        double pickupDistanceKm = match.getPickupDistanceKm();
+        double dropoffDistanceKm = match.getDropoffDistanceKm();
+        return RouteMatchResponseDto.builder()
+                .id(ride.getId())
+                .riderId(ride.getRiderId())
+                .pickupAddress(ride.getPickupAddress())
+                .pickupLatitude(ride.getPickupLatitude())
+                .pickupLongitude(ride.getPickupLongitude())
+                .pickupDistanceKm(Math.round(pickupDistanceKm * 100.0) / 100.0)
+                .dropoffAddress(ride.getDropoffAddress())
+                .dropoffLatitude(ride.getDropoffLatitude())
+                .dropoffLongitude(ride.getDropoffLongitude())
+                .dropoffDistanceKm(Math.round(dropoffDistanceKm * 100.0) / 100.0)
+                .totalDistanceKm(Math.round((pickupDistanceKm + dropoffDistanceKm) * 100.0) / 100.0)
+                .score(Math.round(match.getScore() * 100.0) / 100.0)
+                .scheduledTime(ride.getScheduledTime())
+                .status(ride.getStatus().name())
+                .passengers(ride.getPassengers())
+                .isSharedRide(ride.getIsSharedRide())
+                .build();
+    }
+
     private ScheduledRideMapper() {
         // Utility class, prevent instantiation
     }
@@ -0,0 +1,139 @@
+package com.thirikkale.scheduledrideservice.matching;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.util.GeoBatchFilter;
+import com.thirikkale.scheduledrideservice.util.GeoKernel;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Greedy clustering skeleton shared by the engines: rides are visited in scheduledTime order,
+ * each unassigned ride seeds a cluster and pulls in the first compatible unassigned rides
+ * (in the same order) until maxGroupSize is reached. A ride is compatible when it is within
+ * the seed's time window and pickup radius and, if the detour check is on, can be inserted
+ * into the cluster's route without pushing any rider over maxDetourMinutes.
+ * Engines only differ in which rides they offer as candidates for a seed, so their results
+ * are identical.
+ */
+@RequiredArgsConstructor
+abstract class AbstractClusteringEngine implements RideClusteringEngine {
+
+    private static final GeoBatchFilter GEO_FILTER = GeoBatchFilter.get();
+
+    protected final MatchingProperties properties;
+    protected final DetourEvaluator detourEvaluator;
+
+    @Override
+    public List<RideCluster> cluster(List<ScheduledRide> candidates) {
+        List<ScheduledRide> rides = new ArrayList<>();
+        for (ScheduledRide r : candidates) {
+            // Rides already in a group, or without a time or pickup point, cannot seed or join a cluster
+            if (r.getSharedGroupId() == null && r.getScheduledTime() != null
+                    && r.getPickupLatitude() != null && r.getPickupLongitude() != null) {
+                rides.add(r);
+            }
+        }
+        rides.sort(Comparator.comparing(ScheduledRide::getScheduledTime));
+
+        CandidateSource source = index(rides);
+        int n = rides.size();
+        boolean[] assigned = new boolean[n];
+        List<RideCluster> clusters = new ArrayList<>();
+        int maxGroupSize = properties.getMaxGroupSize();
+        boolean checkDetour = detourEvaluator.isEnabled();
+        double radiusKm = properties.getPickupRadiusMeters() / 1000.0;
+
+        double[] pickupLats = new double[n];
+        double[] pickupLngs = new double[n];
+        for (int k = 0; k < n; k++) {
+            pickupLats[k] = rides.get(k).getPickupLatitude();
+            pickupLngs[k] = rides.get(k).getPickupLongitude();
+        }
+        // Per seed: candidates inside the time window, gathered for one batch radius check
+        int[] positions = new int[n];
+        double[] candidateLats = new double[n];
+        double[] candidateLngs = new double[n];
+        int[] nearby = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            if (assigned[i]) continue;
+            ScheduledRide seed = rides.get(i);
+
+            RoutePlan plan = checkDetour ? detourEvaluator.start(seed) : null;
+            if (checkDetour && plan == null) continue;
+
+            int gathered = 0;
+            for (int j : source.candidatesFor(i)) {
+                if (j == i || assigned[j] || !isWithinTimeWindow(seed, rides.get(j))) continue;
+                positions[gathered] = j;
+                candidateLats[gathered] = pickupLats[j];
+                candidateLngs[gathered] = pickupLngs[j];
+                gathered++;
+            }
+            GeoKernel.Circle seedPickup = GeoKernel.circle(pickupLats[i], pickupLngs[i], radiusKm);
+            int compatible = GEO_FILTER.filter(seedPickup, candidateLats, candidateLngs, gathered, nearby, null);
+
+            // The filter keeps candidate order, so members are taken in the same order as before
+            List<Integer> members = new ArrayList<>();
+            members.add(i);
+            for (int k = 0; k < compatible && members.size() < maxGroupSize; k++) {
+                int j = positions[nearby[k]];
+                RoutePlan extended = checkDetour ? detourEvaluator.tryAdd(plan, rides.get(j)) : null;
+                if (!checkDetour || extended != null) {
+                    members.add(j);
+                    plan = extended;
+                }
+            }
+
+            if (members.size() >= 2) {
+                List<ScheduledRide> cluster = new ArrayList<>(members.size());
+                for (int m : members) {
+                    assigned[m] = true;
+                    cluster.add(rides.get(m));
+                }
+                clusters.add(new RideCluster(cluster, plan));
+            }
+        }
+        return clusters;
+    }
+
+    /**
+     * Builds whatever lookup structure the engine needs over the time-sorted rides.
+     */
+    protected abstract CandidateSource index(List<ScheduledRide> sortedRides);
+
+    /**
+     * Time half of the pair rule shared by every engine; the other half, the seed's pickup
+     * radius, is checked for all of a seed's candidates at once.
+     */
+    protected boolean isWithinTimeWindow(ScheduledRide seed, ScheduledRide other) {
+        return wholeMinutesBetween(seed.getScheduledTime(), other.getScheduledTime()) <= properties.getTimeWindowMinutes();
+    }
+
+    /**
+     * Duration.between(a, b).abs().toMinutes() without allocating the two Durations.
+     */
+    static long wholeMinutesBetween(Instant a, Instant b) {
+        long seconds = b.getEpochSecond() - a.getEpochSecond();
+        int nanos = b.getNano() - a.getNano();
+        if (nanos < 0) {
+            seconds--;
+            nanos += 1_000_000_000;
+        }
+        // A negative gap with a fractional part truncates towards zero once made positive
+        long absSeconds = seconds >= 0 ? seconds : (nanos > 0 ? -seconds - 1 : -seconds);
+        return absSeconds / 60;
+    }
+
+    /**
+     * Candidate positions for a seed, in ascending order. Must include every position within the
+     * seed's time window and pickup radius.
+     */
+    protected interface CandidateSource {
+        Iterable<Integer> candidatesFor(int seedIndex);
+    }
+}
@@ -0,0 +1,137 @@
+package com.thirikkale.scheduledrideservice.matching;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scores candidate groups by the extra time their stop ordering adds for each rider: the
+ * rider's dropoff arrival compared with a vehicle that drives from the route's first stop
+ * straight to their pickup and then directly to their dropoff. Waiting while other riders
+ * are served first therefore counts as detour, not just the in-vehicle part.
+ *
+ * Riders are added one at a time by cheapest insertion: the existing stop order is kept and
+ * only the positions of the new pickup and dropoff are searched, reusing every leg time the
+ * previous plan already estimated. A plan is rejected as soon as any rider's detour exceeds
+ * scheduler.matching.maxDetourMinutes; a value of 0 or less disables the check.
+ */
+@Component
+@RequiredArgsConstructor
+public class DetourEvaluator {
+
+    private final TravelTimeEstimator travelTimeEstimator;
+    private final MatchingProperties properties;
+
+    public boolean isEnabled() {
+        return properties.getMaxDetourMinutes() > 0;
+    }
+
+    /**
+     * Plan for a single rider: pickup then dropoff, no detour.
+     *
+     * @return null if the ride has no dropoff point to route to
+     */
+    public RoutePlan start(ScheduledRide seed) {
+        if (!hasRoute(seed)) {
+            return null;
+        }
+        Instant departure = seed.getScheduledTime();
+        double direct = leg(seed, true, seed, false, departure);
+        double[][] legs = {{0, direct}, {leg(seed, false, seed, true, departure), 0}};
+        return new RoutePlan(List.of(seed), new int[]{0, 1}, legs, new double[]{direct}, direct, 0);
+    }
+
+    /**
+     * Cheapest feasible plan that adds the ride to the given plan.
+     *
+     * @return null if every insertion breaks some rider's detour limit
+     */
+    public RoutePlan tryAdd(RoutePlan plan, ScheduledRide ride) {
+        if (!hasRoute(ride)) {
+            return null;
+        }
+        List<ScheduledRide> riders = new ArrayList<>(plan.getRiders());
+        riders.add(ride);
+        int newRider = riders.size() - 1;
+        int points = riders.size() * 2;
+        Instant departure = riders.get(0).getScheduledTime();
+
+        // Copy known legs and estimate only those touching the new pickup/dropoff
+        double[][] legs = new double[points][points];
+        double[][] known = plan.getLegSeconds();
+        for (int a = 0; a < known.length; a++) {
+            System.arraycopy(known[a], 0, legs[a], 0, known.length);
+        }
+        for (int a = 0; a < points; a++) {
+            for (int b = 2 * newRider; b < points; b++) {
+                if (a == b) continue;
+                legs[a][b] = leg(riders.get(a / 2), a % 2 == 0, riders.get(b / 2), b % 2 == 0, departure);
+                if (a < 2 * newRider) {
+                    legs[b][a] = leg(riders.get(b / 2), b % 2 == 0, riders.get(a / 2), a % 2 == 0, departure);
+                }
+            }
+        }
+
+        double[] direct = new double[riders.size()];
+        System.arraycopy(plan.getDirectSeconds(), 0, direct, 0, newRider);
+        direct[newRider] = legs[2 * newRider][2 * newRider + 1];
+
+        double limit = properties.getMaxDetourMinutes() * 60.0;
+        int[] base = plan.getSequence();
+        int[] candidate = new int[base.length + 2];
+        double[] pickupAt = new double[riders.size()]; // baseline time at each rider's pickup
+        RoutePlan best = null;
+
+        for (int i = 0; i <= base.length; i++) {
+            for (int j = i; j <= base.length; j++) {
+                // New pickup goes before base[i], new dropoff before base[j]
+                int k = 0;
+                for (int p = 0; p <= base.length; p++) {
+                    if (p == i) candidate[k++] = 2 * newRider;
+                    if (p == j) candidate[k++] = 2 * newRider + 1;
+                    if (p < base.length) candidate[k++] = base[p];
+                }
+
+                double clock = 0;
+                double worstDetour = 0;
+                boolean feasible = true;
+                for (int s = 0; s < candidate.length && feasible; s++) {
+                    if (s > 0) clock += legs[candidate[s - 1]][candidate[s]];
+                    int point = candidate[s];
+                    int rider = point / 2;
+                    if (point % 2 == 0) {
+                        // Baseline: the vehicle heads straight to this pickup from the first stop
+                        pickupAt[rider] = point == candidate[0] ? 0 : legs[candidate[0]][point];
+                    } else {
+                        double detour = clock - (pickupAt[rider] + direct[rider]);
+                        worstDetour = Math.max(worstDetour, detour);
+                        feasible = detour <= limit;
+                    }
+                }
+
+                if (feasible && (best == null || clock < best.getTotalSeconds())) {
+                    best = new RoutePlan(riders, candidate.clone(), legs, direct, clock, worstDetour);
+                }
+            }
+        }
+        return best;
+    }
+
+    private static boolean hasRoute(ScheduledRide r) {
+        return r.getPickupLatitude() != null && r.getPickupLongitude() != null
+                && r.getDropoffLatitude() != null && r.getDropoffLongitude() != null;
+    }
+
+    private double leg(ScheduledRide from, boolean fromPickup, ScheduledRide to, boolean toPickup, Instant departure) {
+        return travelTimeEstimator.travelSeconds(
+                fromPickup ? from.getPickupLatitude() : from.getDropoffLatitude(),
+                fromPickup ? from.getPickupLongitude() : from.getDropoffLongitude(),
+                toPickup ? to.getPickupLatitude() : to.getDropoffLatitude(),
+                toPickup ? to.getPickupLongitude() : to.getDropoffLongitude(),
+                departure);
+    }
+}
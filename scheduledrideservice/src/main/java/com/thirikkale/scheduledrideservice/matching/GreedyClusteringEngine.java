@@ -0,0 +1,32 @@
+package com.thirikkale.scheduledrideservice.matching;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Reference engine: every seed is compared against every other candidate, O(n²).
+ * Kept to regression-check the grid engine (scheduler.matching.engine=greedy).
+ */
+@Component
+public class GreedyClusteringEngine extends AbstractClusteringEngine {
+
+    public static final String NAME = "greedy";
+
+    public GreedyClusteringEngine(MatchingProperties properties, DetourEvaluator detourEvaluator) {
+        super(properties, detourEvaluator);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    protected CandidateSource index(List<ScheduledRide> sortedRides) {
+        List<Integer> all = IntStream.range(0, sortedRides.size()).boxed().toList();
+        return seedIndex -> all;
+    }
+}
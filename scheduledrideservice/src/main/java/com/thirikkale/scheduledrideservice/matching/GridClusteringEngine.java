@@ -0,0 +1,83 @@
+package com.thirikkale.scheduledrideservice.matching;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Buckets candidates into time-slot × pickup-cell buckets and only compares a seed with
+ * rides in its own and the neighbouring buckets, so cost grows with local density rather
+ * than with the total number of candidates.
+ *
+ * Slots are timeWindowMinutes + 1 minutes wide (the window check truncates to whole minutes)
+ * and cells are at least pickupRadiusMeters across, so every compatible pair is at most one
+ * bucket apart on each axis.
+ */
+@Component
+public class GridClusteringEngine extends AbstractClusteringEngine {
+
+    public static final String NAME = "grid";
+
+    private static final double EARTH_RADIUS_METERS = 6371000.0;
+    private static final double METERS_PER_DEGREE_LAT = EARTH_RADIUS_METERS * Math.PI / 180.0;
+
+    public GridClusteringEngine(MatchingProperties properties, DetourEvaluator detourEvaluator) {
+        super(properties, detourEvaluator);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    protected CandidateSource index(List<ScheduledRide> sortedRides) {
+        if (sortedRides.isEmpty()) {
+            return seedIndex -> List.of();
+        }
+
+        long slotSeconds = (properties.getTimeWindowMinutes() + 1L) * 60L;
+        double radius = properties.getPickupRadiusMeters();
+        double latCellDegrees = radius / METERS_PER_DEGREE_LAT;
+
+        // Longitude cells are sized for the highest latitude present, where degrees are shortest
+        double maxAbsLat = 0;
+        for (ScheduledRide r : sortedRides) {
+            maxAbsLat = Math.max(maxAbsLat, Math.abs(r.getPickupLatitude()));
+        }
+        double cosMin = Math.cos(Math.toRadians(Math.min(89.0, maxAbsLat + latCellDegrees)));
+        double sinHalf = Math.min(1.0, Math.sin(radius / (2 * EARTH_RADIUS_METERS)) / cosMin);
+        double lngCellDegrees = Math.max(latCellDegrees, Math.toDegrees(2 * Math.asin(sinHalf)));
+
+        long[][] keys = new long[sortedRides.size()][];
+        Map<BucketKey, List<Integer>> buckets = new HashMap<>();
+        for (int i = 0; i < sortedRides.size(); i++) {
+            ScheduledRide r = sortedRides.get(i);
+            long slot = Math.floorDiv(r.getScheduledTime().getEpochSecond(), slotSeconds);
+            long latCell = (long) Math.floor(r.getPickupLatitude() / latCellDegrees);
+            long lngCell = (long) Math.floor(r.getPickupLongitude() / lngCellDegrees);
+            keys[i] = new long[]{slot, latCell, lngCell};
+            // Rides are added in sorted order, so every bucket list is ascending
+            buckets.computeIfAbsent(new BucketKey(slot, latCell, lngCell), k -> new ArrayList<>()).add(i);
+        }
+
+        return seedIndex -> {
+            long[] key = keys[seedIndex];
+            List<Integer> neighbours = new ArrayList<>();
+            for (long ds = -1; ds <= 1; ds++) {
+                for (long dLat = -1; dLat <= 1; dLat++) {
+                    for (long dLng = -1; dLng <= 1; dLng++) {
+                        List<Integer> bucket = buckets.get(new BucketKey(key[0] + ds, key[1] + dLat, key[2] + dLng));
+                        if (bucket != null) neighbours.addAll(bucket);
+                    }
+                }
+            }
+            // Same visiting order as the reference engine
+            Collections.sort(neighbours);
+            return neighbours;
+        };
+    }
+
+    private record BucketKey(long slot, long latCell, long lngCell) { }
+}
@@ -0,0 +1,37 @@
+package com.thirikkale.scheduledrideservice.matching;
+
+import com.thirikkale.scheduledrideservice.util.GeoKernel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Great-circle distance stretched by a road factor, driven at a peak or off-peak speed
+ * depending on the local hour of departure.
+ */
+@Component
+public class HaversineTravelTimeEstimator implements TravelTimeEstimator {
+
+    @Value("${scheduler.matching.travel.roadFactor:1.3}") private double roadFactor;
+    @Value("${scheduler.matching.travel.offPeakSpeedKmh:30}") private double offPeakSpeedKmh;
+    @Value("${scheduler.matching.travel.peakSpeedKmh:18}") private double peakSpeedKmh;
+    @Value("${scheduler.matching.travel.peakHours:7,8,9,16,17,18}") private List<Integer> peakHours;
+    @Value("${scheduler.matching.travel.zone:Asia/Colombo}") private String zone;
+
+    @Override
+    public double travelSeconds(double fromLat, double fromLng, double toLat, double toLng, Instant departure) {
+        double roadKm = GeoKernel.distanceKm(fromLat, fromLng, toLat, toLng) * roadFactor;
+        return roadKm / speedKmh(departure) * 3600.0;
+    }
+
+    private double speedKmh(Instant departure) {
+        if (departure == null) {
+            return offPeakSpeedKmh;
+        }
+        int hour = departure.atZone(ZoneId.of(zone)).getHour();
+        return peakHours.contains(hour) ? peakSpeedKmh : offPeakSpeedKmh;
+    }
+}
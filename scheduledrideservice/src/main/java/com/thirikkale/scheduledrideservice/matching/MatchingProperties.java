@@ -0,0 +1,17 @@
+package com.thirikkale.scheduledrideservice.matching;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shared-ride matching limits, read once so every clustering engine applies the same rules
+ */
+@Component
+@Getter
+public class MatchingProperties {
+    @Value("${scheduler.matching.timeWindowMinutes:10}") private int timeWindowMinutes;
+    @Value("${scheduler.matching.pickupRadiusMeters:800}") private int pickupRadiusMeters;
+    @Value("${scheduler.matching.maxGroupSize:3}") private int maxGroupSize;
+    @Value("${scheduler.matching.maxDetourMinutes:8}") private int maxDetourMinutes;
+}
@@ -0,0 +1,18 @@
+package com.thirikkale.scheduledrideservice.matching;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A group of rides chosen by a clustering engine, seed ride first
+ */
+@Getter
+@AllArgsConstructor
+public class RideCluster {
+    private final List<ScheduledRide> rides;
+    // Stop ordering and detour score; null when the detour check is disabled
+    private final RoutePlan routePlan;
+}
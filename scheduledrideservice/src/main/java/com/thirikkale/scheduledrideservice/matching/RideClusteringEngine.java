@@ -0,0 +1,22 @@
+package com.thirikkale.scheduledrideservice.matching;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+
+import java.util.List;
+
+/**
+ * Splits GROUPING shared-ride candidates into clusters that can be dispatched together.
+ * Implementations must not mutate the candidates; persistence is left to the caller.
+ */
+public interface RideClusteringEngine {
+
+    /**
+     * Name used to select the engine via scheduler.matching.engine
+     */
+    String name();
+
+    /**
+     * @return clusters of two or more rides, each ordered with its seed ride first
+     */
+    List<RideCluster> cluster(List<ScheduledRide> candidates);
+}
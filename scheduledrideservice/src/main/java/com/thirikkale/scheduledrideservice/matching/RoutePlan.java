@@ -0,0 +1,40 @@
+package com.thirikkale.scheduledrideservice.matching;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable pickup/dropoff ordering for a candidate group.
+ *
+ * Points are numbered 2r for the pickup and 2r + 1 for the dropoff of rider r. Leg times
+ * between every pair of points are kept so that adding a rider only estimates the legs
+ * that touch the new rider's two points.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class RoutePlan {
+
+    private final List<ScheduledRide> riders;
+    @Getter(AccessLevel.PACKAGE) private final int[] sequence;
+    @Getter(AccessLevel.PACKAGE) private final double[][] legSeconds;
+    @Getter(AccessLevel.PACKAGE) private final double[] directSeconds;
+    private final double totalSeconds;
+    private final double maxDetourSeconds;
+
+    /**
+     * Stop order as "PICKUP:rideId" / "DROPOFF:rideId" entries
+     */
+    public List<String> stopSequence() {
+        List<String> stops = new ArrayList<>(sequence.length);
+        for (int point : sequence) {
+            String rideId = riders.get(point / 2).getId();
+            stops.add((point % 2 == 0 ? "PICKUP:" : "DROPOFF:") + rideId);
+        }
+        return stops;
+    }
+}
@@ -0,0 +1,17 @@
+package com.thirikkale.scheduledrideservice.matching;
+
+import java.time.Instant;
+
+/**
+ * Estimates driving time between two points for detour scoring.
+ * The default {@link HaversineTravelTimeEstimator} works offline; a routing-backed
+ * implementation can replace it by registering a {@code @Primary} bean.
+ */
+public interface TravelTimeEstimator {
+
+    /**
+     * @param departure when the leg starts, for time-of-day dependent estimates
+     * @return estimated travel time in seconds
+     */
+    double travelSeconds(double fromLat, double fromLng, double toLat, double toLng, Instant departure);
+}
@@ -0,0 +1,191 @@
+package com.thirikkale.scheduledrideservice.messaging;
+
+import com.thirikkale.scheduledrideservice.model.OutboxMessage;
+import com.thirikkale.scheduledrideservice.model.enums.OutboxStatus;
+import com.thirikkale.scheduledrideservice.repository.OutboxMessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Drains the outbox to RabbitMQ.
+ *
+ * Each pass claims a batch of due messages, publishes them with confirms and marks the
+ * confirmed ones SENT. Unconfirmed messages back off exponentially and are given up as
+ * FAILED after maxAttempts. Claims expire, so batches held by a dead node are picked up again;
+ * delivery is at-least-once and consumers de-duplicate on the message id.
+ *
+ * A node that enqueues messages is woken after the commit and relays them on its next tick.
+ * Everything else (retries, messages left by other nodes) is found by polling, which backs off
+ * while the outbox is empty.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxMessageRepository repo;
+    private final RideRequestPublisher publisher;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${rabbitmq.outbox.batchSize:200}") private int batchSize;
+    @Value("${rabbitmq.outbox.maxBatchesPerPass:10}") private int maxBatchesPerPass;
+    @Value("${rabbitmq.outbox.claimTtlSeconds:60}") private long claimTtlSeconds;
+    @Value("${rabbitmq.outbox.initialBackoffMillis:1000}") private long initialBackoffMillis;
+    @Value("${rabbitmq.outbox.maxBackoffMillis:300000}") private long maxBackoffMillis;
+    @Value("${rabbitmq.outbox.maxAttempts:20}") private int maxAttempts;
+    @Value("${rabbitmq.outbox.relayInterval:500}") private long relayInterval;
+    @Value("${rabbitmq.outbox.maxIdleBackoffMillis:10000}") private long maxIdleBackoffMillis;
+
+    private final AtomicBoolean woken = new AtomicBoolean();
+    // Poll back-off, only touched by the relay tick
+    private int emptyPolls;
+    private long nextPollAt;
+
+    /**
+     * Asks for a relay pass on the next tick, e.g. after a transaction enqueued messages.
+     */
+    public void wake() {
+        woken.set(true);
+    }
+
+    /**
+     * Clears and returns the wake-up flag.
+     */
+    public boolean takeWakeUp() {
+        return woken.getAndSet(false);
+    }
+
+    /**
+     * Whether a backlog poll is due, false while backing off after empty polls.
+     */
+    public boolean pollDue() {
+        return System.currentTimeMillis() >= nextPollAt;
+    }
+
+    /**
+     * Longest gap between two polls; a poll lease has to outlive it.
+     */
+    public long maxPollDelayMillis() {
+        return Math.max(relayInterval, maxIdleBackoffMillis);
+    }
+
+    /**
+     * Drains the backlog, then polls again on the next tick if it found anything and backs off otherwise.
+     *
+     * @return number of messages confirmed by the broker
+     */
+    public int poll() {
+        BatchResult result = drainBatches();
+        if (result.claimed() > 0) {
+            emptyPolls = 0;
+            nextPollAt = 0;
+        } else {
+            backOff();
+        }
+        return result.sent();
+    }
+
+    /**
+     * Skips polls for a while: double the relay interval per empty poll, up to maxIdleBackoffMillis.
+     */
+    public void backOff() {
+        emptyPolls = Math.min(emptyPolls + 1, 20);
+        long delay = Math.min(relayInterval << emptyPolls, maxPollDelayMillis());
+        nextPollAt = System.currentTimeMillis() + delay;
+    }
+
+    /**
+     * Relays full batches back to back until the backlog is drained or the pass limit is hit.
+     *
+     * @return number of messages confirmed by the broker
+     */
+    public int drain() {
+        return drainBatches().sent();
+    }
+
+    private BatchResult drainBatches() {
+        int claimed = 0;
+        int sent = 0;
+        for (int i = 0; i < maxBatchesPerPass; i++) {
+            BatchResult batch = relayBatch();
+            claimed += batch.claimed();
+            sent += batch.sent();
+            if (batch.claimed() < batchSize) break;
+        }
+        return new BatchResult(claimed, sent);
+    }
+
+    private BatchResult relayBatch() {
+        Instant now = Instant.now();
+        List<String> ids = repo.findRelayable(now, PageRequest.of(0, batchSize, Sort.by("nextAttemptAt"))).stream()
+                .map(OutboxMessage::getId)
+                .toList();
+        if (ids.isEmpty()) return new BatchResult(0, 0);
+
+        String claimId = UUID.randomUUID().toString();
+        if (repo.claim(ids, claimId, now.plusSeconds(claimTtlSeconds), now) == 0) return new BatchResult(0, 0);
+        List<OutboxMessage> claimed = repo.findClaimed(ids, claimId);
+
+        Set<String> confirmed = publisher.publish(claimed);
+        if (!confirmed.isEmpty()) {
+            repo.markSent(confirmed, claimId, Instant.now());
+        }
+        List<OutboxMessage> failed = claimed.stream().filter(m -> !confirmed.contains(m.getId())).toList();
+        if (!failed.isEmpty()) {
+            scheduleRetries(failed, claimId);
+        }
+        return new BatchResult(claimed.size(), confirmed.size());
+    }
+
+    private void scheduleRetries(List<OutboxMessage> failed, String claimId) {
+        Instant now = Instant.now();
+        BulkOperations ops = mongoTemplate.bulkOps(BulkMode.UNORDERED, OutboxMessage.class);
+        int givenUp = 0;
+        for (OutboxMessage m : failed) {
+            int attempts = (m.getAttempts() == null ? 0 : m.getAttempts()) + 1;
+            Update update = new Update()
+                    .set("attempts", attempts)
+                    .set("lastError", "not confirmed by broker")
+                    .unset("relayClaimId")
+                    .unset("relayClaimedUntil");
+            if (attempts >= maxAttempts) {
+                update.set("status", OutboxStatus.FAILED);
+                givenUp++;
+            } else {
+                update.set("nextAttemptAt", now.plus(backoff(attempts)));
+            }
+            ops.updateOne(Query.query(where("_id").is(m.getId()).and("relayClaimId").is(claimId)), update);
+        }
+        ops.execute();
+        log.warn("{} outbox messages were not confirmed and will be retried", failed.size() - givenUp);
+        if (givenUp > 0) {
+            log.error("Gave up on {} outbox messages after {} attempts, they are left as FAILED", givenUp, maxAttempts);
+        }
+    }
+
+    private record BatchResult(int claimed, int sent) {
+    }
+
+    private Duration backoff(int attempts) {
+        long millis = initialBackoffMillis << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(millis, maxBackoffMillis));
+    }
+}
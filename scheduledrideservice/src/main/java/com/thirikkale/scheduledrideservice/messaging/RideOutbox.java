@@ -0,0 +1,108 @@
+package com.thirikkale.scheduledrideservice.messaging;
+
+import com.thirikkale.scheduledrideservice.messaging.payload.RideRequestPayload;
+import com.thirikkale.scheduledrideservice.messaging.payload.SharedRideGroupRequestPayload;
+import com.thirikkale.scheduledrideservice.messaging.payload.SoloRideRequestPayload;
+import com.thirikkale.scheduledrideservice.model.OutboxMessage;
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.model.enums.OutboxStatus;
+import com.thirikkale.scheduledrideservice.repository.OutboxMessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Writes ride requests to the outbox together with the ride state change that produced them.
+ *
+ * The transaction manager is private to this class on purpose: registering one as a bean
+ * would switch on every {@code @Transactional} in the services, which were written without it.
+ */
+@Component
+@Slf4j
+public class RideOutbox {
+
+    private final OutboxMessageRepository repo;
+    private final OutboxRelay relay;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean transactional;
+
+    @Value("${rabbitmq.routing.solo}") private String soloRoutingKey;
+    @Value("${rabbitmq.routing.shared}") private String sharedRoutingKey;
+
+    public RideOutbox(OutboxMessageRepository repo, OutboxRelay relay, MongoDatabaseFactory databaseFactory,
+                      @Value("${rabbitmq.outbox.transactional:true}") boolean transactional) {
+        this.repo = repo;
+        this.relay = relay;
+        this.transactionTemplate = new TransactionTemplate(new MongoTransactionManager(databaseFactory));
+        this.transactional = transactional;
+        if (!transactional) {
+            // Standalone mongod has no transactions; state and outbox writes are then only ordered
+            log.warn("Outbox writes are not transactional, a crash can leave a state change without its message");
+        }
+    }
+
+    /**
+     * Runs the state change and its outbox writes as one MongoDB transaction.
+     */
+    public <T> T inTransaction(Supplier<T> work) {
+        return transactional ? transactionTemplate.execute(status -> work.get()) : work.get();
+    }
+
+    /**
+     * Inserts the messages and wakes this node's relay once they are committed.
+     */
+    public void enqueue(List<OutboxMessage> messages) {
+        if (messages.isEmpty()) return;
+        repo.insert(messages);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    relay.wake();
+                }
+            });
+        } else {
+            relay.wake();
+        }
+    }
+
+    public OutboxMessage soloBooked(ScheduledRide ride) {
+        return message("ride-booked:" + ride.getId(), soloRoutingKey, SoloRideRequestPayload.of(ride));
+    }
+
+    /**
+     * Keyed by the dispatch claim, so a ride that is dispatched again (e.g. after a reschedule)
+     * gets a new message while a replayed enqueue of the same claim still collides.
+     */
+    public OutboxMessage soloDispatch(ScheduledRide ride) {
+        return message("ride-dispatch:" + ride.getId() + ":" + ride.getDispatchClaimId(),
+                soloRoutingKey, SoloRideRequestPayload.of(ride));
+    }
+
+    public OutboxMessage sharedDispatch(String groupId, String claimId, List<ScheduledRide> members) {
+        return message("group-dispatch:" + groupId + ":" + claimId,
+                sharedRoutingKey, SharedRideGroupRequestPayload.of(groupId, members));
+    }
+
+    private static OutboxMessage message(String dedupKey, String routingKey, RideRequestPayload payload) {
+        Instant now = Instant.now();
+        return OutboxMessage.builder()
+                .dedupKey(dedupKey)
+                .routingKey(routingKey)
+                .payload(payload)
+                .status(OutboxStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+    }
+}
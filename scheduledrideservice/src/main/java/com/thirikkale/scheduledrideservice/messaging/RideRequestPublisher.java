@@ -1,14 +1,26 @@
 package com.thirikkale.scheduledrideservice.messaging;
 
-import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.messaging.payload.SharedRideGroupRequestPayload;
+import com.thirikkale.scheduledrideservice.model.OutboxMessage;
+import com.thirikkale.scheduledrideservice.scheduler.DispatchMetrics;
+import io.micrometer.core.instrument.Meter.MeterProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.MessagePostProcessor;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @RequiredArgsConstructor
@@ -17,61 +29,112 @@ public class RideRequestPublisher {
 
     private final RabbitTemplate rabbitTemplate;
     private final TopicExchange rideRequestsExchange;
+    private final MeterRegistry meterRegistry;
 
-    @Value("${rabbitmq.routing.solo}") private String soloRoutingKey;
-    @Value("${rabbitmq.routing.shared}") private String sharedRoutingKey;
+    @Value("${rabbitmq.publisher.maxInFlight:256}") private int maxInFlight;
+    @Value("${rabbitmq.publisher.confirmTimeoutMillis:10000}") private long confirmTimeoutMillis;
 
-    public void publishSoloRideRequest(ScheduledRide r) {
-        try {
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("rideId", r.getId());
-            payload.put("riderId", r.getRiderId());
-            payload.put("pickupLat", r.getPickupLatitude());
-            payload.put("pickupLng", r.getPickupLongitude());
-            payload.put("dropoffLat", r.getDropoffLatitude());
-            payload.put("dropoffLng", r.getDropoffLongitude());
-            payload.put("scheduledTime", r.getScheduledTime().toString());
-            payload.put("passengers", r.getPassengers());
-            payload.put("isShared", false);
-            payload.put("rideType", r.getRideType());
-            payload.put("vehicleType", r.getVehicleType());
-            payload.put("distanceKm", r.getDistanceKm());
-            payload.put("waitingTimeMin", r.getWaitingTimeMin());
-            payload.put("womenOnly", r.getIsWomenOnly());
-            payload.put("driverId", r.getDriverId());
-            payload.put("maxFare", r.getMaxFare());
-            payload.put("specialRequests", r.getSpecialRequests());
-            rabbitTemplate.convertAndSend(rideRequestsExchange.getName(), soloRoutingKey, payload);
-            log.info("Published solo ride request for ride ID: {}", r.getId());
-        } catch (Exception e) {
-            log.warn("Failed to publish solo ride request to RabbitMQ (ride will still be saved): {}", e.getMessage());
+    // Bounds the messages sent but not yet confirmed, so a slow broker pushes back on dispatch
+    private Semaphore inFlight;
+    private boolean confirmsEnabled;
+    // Send to broker confirm (or send only, without confirms), tagged with type and result
+    private MeterProvider<Timer> publishLatency;
+
+    @PostConstruct
+    void init() {
+        inFlight = new Semaphore(maxInFlight);
+        publishLatency = Timer.builder("scheduled_rides.publish.latency")
+                .description("Ride request publish time until the broker confirm; result != confirmed is a failure")
+                .withRegistry(meterRegistry);
+        confirmsEnabled = rabbitTemplate.getConnectionFactory().isPublisherConfirms();
+        if (!confirmsEnabled) {
+            log.warn("Publisher confirms are disabled, outbox messages are marked sent after a successful send");
         }
     }
 
-    public void publishSharedRideGroupRequest(String groupId, java.util.List<ScheduledRide> members) {
+    /**
+     * Sends every outbox message without waiting in between, then waits for the broker confirms.
+     *
+     * @return ids of the messages the broker confirmed; anything else was nacked, returned or timed out
+     */
+    public Set<String> publish(List<OutboxMessage> messages) {
+        Map<String, CompletableFuture<Boolean>> pending = new LinkedHashMap<>();
+        for (OutboxMessage m : messages) {
+            String type = m.getPayload() instanceof SharedRideGroupRequestPayload
+                    ? DispatchMetrics.SHARED : DispatchMetrics.SOLO;
+            pending.put(m.getId(), send(type, m.getRoutingKey(), m.getPayload(), m.getDedupKey()));
+        }
+        return confirmed(pending);
+    }
+
+    private CompletableFuture<Boolean> send(String type, String routingKey, Object payload, String id) {
+        long start = System.nanoTime();
+        MessagePostProcessor withMessageId = message -> {
+            // Lets consumers drop the duplicates an at-least-once relay can produce
+            message.getMessageProperties().setMessageId(id);
+            return message;
+        };
         try {
-            java.util.List<Map<String, Object>> riders = new ArrayList<>();
-            for (ScheduledRide r : members) {
-                riders.add(Map.of(
-                        "scheduledRideId", r.getId(),
-                        "riderId", r.getRiderId().toString(),
-                        "pickupLat", r.getPickupLatitude(),
-                        "pickupLng", r.getPickupLongitude(),
-                        "dropoffLat", r.getDropoffLatitude(),
-                        "dropoffLng", r.getDropoffLongitude(),
-                        "passengers", r.getPassengers()
-                ));
+            if (!inFlight.tryAcquire(confirmTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                log.warn("Publish window full for {} ms, deferring {}", confirmTimeoutMillis, id);
+                record(type, "window_full", start);
+                return CompletableFuture.completedFuture(false);
             }
-            Map<String, Object> payload = Map.of(
-                    "groupId", groupId.toString(),
-                    "scheduledTime", members.get(0).getScheduledTime().toString(),
-                    "members", riders,
-                    "isShared", true
-            );
-            rabbitTemplate.convertAndSend(rideRequestsExchange.getName(), sharedRoutingKey, payload);
-            log.info("Published shared ride group request for group ID: {}", groupId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            record(type, "interrupted", start);
+            return CompletableFuture.completedFuture(false);
+        }
+        CorrelationData correlation = new CorrelationData(id + ":" + UUID.randomUUID());
+        try {
+            rabbitTemplate.convertAndSend(rideRequestsExchange.getName(), routingKey, payload, withMessageId, correlation);
         } catch (Exception e) {
-            log.warn("Failed to publish shared ride group request to RabbitMQ (rides will still be saved): {}", e.getMessage());
+            inFlight.release();
+            log.warn("Failed to publish {} to RabbitMQ: {}", id, e.getMessage());
+            record(type, "send_failed", start);
+            return CompletableFuture.completedFuture(false);
+        }
+        if (!confirmsEnabled) {
+            inFlight.release();
+            record(type, "sent", start);
+            return CompletableFuture.completedFuture(true);
         }
+        return correlation.getFuture()
+                .orTimeout(confirmTimeoutMillis, TimeUnit.MILLISECONDS)
+                .handle((confirm, ex) -> {
+                    inFlight.release();
+                    if (ex != null) {
+                        log.warn("No publisher confirm for {}: {}", id, ex.toString());
+                        record(type, "timeout", start);
+                        return false;
+                    }
+                    if (!confirm.isAck()) {
+                        log.warn("Broker nacked {}: {}", id, confirm.getReason());
+                        record(type, "nacked", start);
+                        return false;
+                    }
+                    if (correlation.getReturned() != null) {
+                        log.warn("Message for {} was unroutable: {}", id, correlation.getReturned().getReplyText());
+                        record(type, "returned", start);
+                        return false;
+                    }
+                    record(type, "confirmed", start);
+                    return true;
+                });
+    }
+
+    private void record(String type, String result, long startNanos) {
+        publishLatency.withTags(Tags.of("type", type, "result", result))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Set<String> confirmed(Map<String, CompletableFuture<Boolean>> pending) {
+        Set<String> ids = new LinkedHashSet<>();
+        // Each future is bounded by the confirm timeout, so this waits at most one timeout overall
+        pending.forEach((id, future) -> {
+            if (future.join()) ids.add(id);
+        });
+        log.info("Published {} of {} ride requests with broker confirms", ids.size(), pending.size());
+        return ids;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package com.thirikkale.scheduledrideservice.messaging.payload;
+
+import java.util.Map;
+
+/**
+ * Body of a message on the ride requests exchange. The schema version travels in the body,
+ * so consumers can keep reading older messages while the records evolve.
+ */
+public sealed interface RideRequestPayload permits SoloRideRequestPayload, SharedRideGroupRequestPayload {
+
+    int schemaVersion();
+
+    /**
+     * The map this payload was sent as before the records, for the legacy Java-serialized encoding.
+     * Same keys and value types as the old publisher; no schema version.
+     */
+    Map<String, Object> toLegacyMap();
+}
@@ -0,0 +1,42 @@
+package com.thirikkale.scheduledrideservice.messaging.payload;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public record SharedRideGroupRequestPayload(
+        int schemaVersion,
+        String groupId,
+        Instant scheduledTime,
+        List<SharedRideMemberPayload> members,
+        boolean isShared
+) implements RideRequestPayload {
+
+    public static final int VERSION = 1;
+
+    public static SharedRideGroupRequestPayload of(String groupId, List<ScheduledRide> members) {
+        List<SharedRideMemberPayload> riders = new ArrayList<>(members.size());
+        for (ScheduledRide r : members) {
+            riders.add(SharedRideMemberPayload.of(r));
+        }
+        return new SharedRideGroupRequestPayload(VERSION, groupId, members.get(0).getScheduledTime(), riders, true);
+    }
+
+    @Override
+    public Map<String, Object> toLegacyMap() {
+        List<Map<String, Object>> riders = new ArrayList<>(members.size());
+        for (SharedRideMemberPayload m : members) {
+            riders.add(m.toLegacyMap());
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("groupId", groupId);
+        payload.put("scheduledTime", scheduledTime.toString());
+        payload.put("members", riders);
+        payload.put("isShared", isShared);
+        return payload;
+    }
+}
@@ -0,0 +1,40 @@
+package com.thirikkale.scheduledrideservice.messaging.payload;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public record SharedRideMemberPayload(
+        String scheduledRideId,
+        String riderId,
+        Double pickupLat,
+        Double pickupLng,
+        Double dropoffLat,
+        Double dropoffLng,
+        Integer passengers
+) {
+
+    public static SharedRideMemberPayload of(ScheduledRide r) {
+        return new SharedRideMemberPayload(
+                r.getId(),
+                r.getRiderId(),
+                r.getPickupLatitude(),
+                r.getPickupLongitude(),
+                r.getDropoffLatitude(),
+                r.getDropoffLongitude(),
+                r.getPassengers());
+    }
+
+    Map<String, Object> toLegacyMap() {
+        Map<String, Object> rider = new HashMap<>();
+        rider.put("scheduledRideId", scheduledRideId);
+        rider.put("riderId", riderId);
+        rider.put("pickupLat", pickupLat);
+        rider.put("pickupLng", pickupLng);
+        rider.put("dropoffLat", dropoffLat);
+        rider.put("dropoffLng", dropoffLng);
+        rider.put("passengers", passengers);
+        return rider;
+    }
+}
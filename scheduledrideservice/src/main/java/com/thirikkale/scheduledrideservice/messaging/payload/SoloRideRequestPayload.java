@@ -0,0 +1,79 @@
+package com.thirikkale.scheduledrideservice.messaging.payload;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Solo ride request. Field names match the map payload it replaces, see {@link #toLegacyMap()}.
+ */
+public record SoloRideRequestPayload(
+        int schemaVersion,
+        String rideId,
+        String riderId,
+        Double pickupLat,
+        Double pickupLng,
+        Double dropoffLat,
+        Double dropoffLng,
+        Instant scheduledTime,
+        Integer passengers,
+        boolean isShared,
+        String rideType,
+        String vehicleType,
+        Double distanceKm,
+        Integer waitingTimeMin,
+        Boolean womenOnly,
+        String driverId,
+        Double maxFare,
+        String specialRequests
+) implements RideRequestPayload {
+
+    public static final int VERSION = 1;
+
+    public static SoloRideRequestPayload of(ScheduledRide r) {
+        return new SoloRideRequestPayload(
+                VERSION,
+                r.getId(),
+                r.getRiderId(),
+                r.getPickupLatitude(),
+                r.getPickupLongitude(),
+                r.getDropoffLatitude(),
+                r.getDropoffLongitude(),
+                r.getScheduledTime(),
+                r.getPassengers(),
+                false,
+                r.getRideType(),
+                r.getVehicleType(),
+                r.getDistanceKm(),
+                r.getWaitingTimeMin(),
+                r.getIsWomenOnly(),
+                r.getDriverId(),
+                r.getMaxFare(),
+                r.getSpecialRequests());
+    }
+
+    @Override
+    public Map<String, Object> toLegacyMap() {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("rideId", rideId);
+        payload.put("riderId", riderId);
+        payload.put("pickupLat", pickupLat);
+        payload.put("pickupLng", pickupLng);
+        payload.put("dropoffLat", dropoffLat);
+        payload.put("dropoffLng", dropoffLng);
+        payload.put("scheduledTime", scheduledTime.toString());
+        payload.put("passengers", passengers);
+        payload.put("isShared", isShared);
+        payload.put("rideType", rideType);
+        payload.put("vehicleType", vehicleType);
+        payload.put("distanceKm", distanceKm);
+        payload.put("waitingTimeMin", waitingTimeMin);
+        payload.put("womenOnly", womenOnly);
+        payload.put("driverId", driverId);
+        payload.put("maxFare", maxFare);
+        payload.put("specialRequests", specialRequests);
+        return payload;
+    }
+}
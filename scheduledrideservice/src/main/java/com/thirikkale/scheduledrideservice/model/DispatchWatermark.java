@@ -0,0 +1,23 @@
+package com.thirikkale.scheduledrideservice.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import lombok.*;
+import java.time.Instant;
+
+/**
+ * Upper bound of the scheduledTime slice a dispatch job has already scanned.
+ * Each tick only reads rides scheduled after it, so the scan no longer grows with history.
+ */
+@Document(collection = "dispatch_watermarks")
+@Getter @Setter @Builder @NoArgsConstructor @AllArgsConstructor
+public class DispatchWatermark {
+    public static final String SOLO = "solo";
+    public static final String SHARED = "shared";
+
+    @Id
+    private String id; // SOLO or SHARED
+
+    private Instant watermark;
+    private Instant updatedAt;
+}
@@ -0,0 +1,13 @@
+package com.thirikkale.scheduledrideservice.model;
+
+import lombok.*;
+
+/**
+ * Result row of a $geoNear query on scheduled_rides
+ * Wraps the matched ride together with the distance computed by MongoDB
+ */
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class NearbyRideResult {
+    private ScheduledRide ride;
+    private Double distanceMeters;
+}
@@ -0,0 +1,43 @@
+package com.thirikkale.scheduledrideservice.model;
+
+import com.thirikkale.scheduledrideservice.messaging.payload.RideRequestPayload;
+import com.thirikkale.scheduledrideservice.model.enums.OutboxStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import lombok.*;
+import java.time.Instant;
+
+/**
+ * A RabbitMQ message written in the same transaction as the ride state change that caused it.
+ * The outbox relay delivers it later, so a crash can delay a message but never lose or
+ * duplicate the state change behind it.
+ */
+@Document(collection = "ride_outbox")
+@CompoundIndex(name = "status_next_attempt", def = "{'status': 1, 'nextAttemptAt': 1}")
+@Getter @Setter @Builder @NoArgsConstructor @AllArgsConstructor
+public class OutboxMessage {
+    @Id
+    private String id;
+
+    // e.g. "ride-dispatch:<rideId>:<claimId>"; also sent as the AMQP message id so consumers can de-duplicate
+    @Indexed(unique = true)
+    private String dedupKey;
+
+    private String routingKey;
+    private RideRequestPayload payload;
+
+    private OutboxStatus status; // PENDING -> SENT, or FAILED after maxAttempts
+    private Integer attempts;
+    private Instant nextAttemptAt;
+    private String lastError;
+
+    // Relay node batch currently publishing this message
+    private String relayClaimId;
+    private Instant relayClaimedUntil;
+
+    private Instant createdAt;
+    @Indexed(expireAfter = "7d")
+    private Instant sentAt;
+}
@@ -0,0 +1,15 @@
+package com.thirikkale.scheduledrideservice.model;
+
+import lombok.*;
+
+/**
+ * A ride matching both ends of a route query, with its distances and weighted score
+ */
+@Getter @AllArgsConstructor
+public class RouteMatchResult {
+    private final ScheduledRide ride;
+    private final double pickupDistanceKm;
+    private final double dropoffDistanceKm;
+    // Lower is better
+    private final double score;
+}
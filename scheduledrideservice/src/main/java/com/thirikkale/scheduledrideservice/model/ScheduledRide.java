@@ -1,6 +1,7 @@
 package com.thirikkale.scheduledrideservice.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import lombok.*;
@@ -10,7 +11,13 @@ import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 @Document(collection = "scheduled_rides")
-@Getter @Setter @Builder @NoArgsConstructor @AllArgsConstructor
+@CompoundIndex(name = "status_shared_time", def = "{'status': 1, 'isSharedRide': 1, 'scheduledTime': 1}")
+@CompoundIndex(name = "status_time_id", def = "{'status': 1, 'scheduledTime': 1, '_id': 1}")
+@CompoundIndex(name = "time_id", def = "{'scheduledTime': 1, '_id': 1}")
+@CompoundIndex(name = "rider_time", def = "{'riderId': 1, 'scheduledTime': 1}")
+@CompoundIndex(name = "driver_time", def = "{'driverId': 1, 'scheduledTime': 1}")
+@CompoundIndex(name = "status_updated", def = "{'status': 1, 'updatedAt': 1}")
+@Getter @Setter @Builder(toBuilder = true) @NoArgsConstructor @AllArgsConstructor
 public class ScheduledRide {
     @Id
     private String id;
@@ -19,10 +26,12 @@ public class ScheduledRide {
     private String pickupAddress;
     private Double pickupLatitude;
     private Double pickupLongitude;
+    private GeoJsonPoint pickupLocation; // GeoJSON mirror of pickup lat/lng, 2dsphere indexed
 
     private String dropoffAddress;
     private Double dropoffLatitude;
     private Double dropoffLongitude;
+    private GeoJsonPoint dropoffLocation; // GeoJSON mirror of dropoff lat/lng, 2dsphere indexed
 
     private Integer passengers;
     private Boolean isSharedRide; // true for shared ride request
@@ -32,8 +41,14 @@ public class ScheduledRide {
     private Instant scheduledTime;
     private ScheduledRideStatus status;
 
+    @Indexed
     private String sharedGroupId; // nullable; populated when grouped
 
+    // Node and batch that won the SCHEDULED -> DISPATCHED transition
+    private String dispatchClaimedBy;
+    private String dispatchClaimId;
+    private Instant dispatchClaimedAt;
+
     // Ride options and preferences for dispatch
     private String rideType;       // enum name as String
     private String vehicleType;    // enum name as String
@@ -5,6 +5,7 @@ import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import lombok.*;
 import java.time.Instant;
+import java.util.List;
 import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
@@ -27,7 +28,17 @@ public class ScheduledSharedRideGroup {
     private Integer maxGroupSize;
     private Integer currentSize;
 
-    private ScheduledRideStatus status; // GROUPING -> SCHEDULED -> DISPATCHED/CANCELLED
+    // Planned pickup/dropoff order ("PICKUP:rideId" / "DROPOFF:rideId") and its estimates
+    private List<String> stopSequence;
+    private Double estimatedRouteMinutes;
+    private Double maxDetourMinutes;
+
+    private ScheduledRideStatus status; // GROUPING -> SCHEDULED -> DISPATCHED/CANCELLED, or FAILED
+
+    // Node and batch that won the SCHEDULED -> DISPATCHED transition
+    private String dispatchClaimedBy;
+    private String dispatchClaimId;
+    private Instant dispatchClaimedAt;
 
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", timezone = "UTC")
     private Instant createdAt;
@@ -0,0 +1,26 @@
+package com.thirikkale.scheduledrideservice.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import lombok.*;
+import java.time.Instant;
+
+/**
+ * Time-bound ownership of a scheduled job, so a tick that must not run on every replica
+ * runs on one node at a time. The holder renews it each tick; others take over once it expires.
+ */
+@Document(collection = "scheduler_leases")
+@Getter @Setter @Builder @NoArgsConstructor @AllArgsConstructor
+public class SchedulerLease {
+    public static final String MATCHING = "matching";
+    public static final String DISPATCH_RECONCILE = "dispatch-reconcile";
+    public static final String SWEEPER = "sweeper";
+    public static final String OUTBOX_RELAY = "outbox-relay";
+
+    @Id
+    private String id; // job name
+
+    private String owner; // node id of the holder
+    private Instant expiresAt;
+    private Instant updatedAt;
+}
@@ -0,0 +1,5 @@
+package com.thirikkale.scheduledrideservice.model.enums;
+
+public enum OutboxStatus {
+    PENDING, SENT, FAILED
+}
@@ -1,5 +1,7 @@
 package com.thirikkale.scheduledrideservice.model.enums;
 
 public enum ScheduledRideStatus {
-    SCHEDULED, GROUPING, DISPATCHED, CANCELLED, ONGOING, COMPLETED
+    SCHEDULED, GROUPING, DISPATCHED, CANCELLED, ONGOING, COMPLETED,
+    // Groups only: formation could not be rolled back, left for repair and never dispatched
+    FAILED
 }
\ No newline at end of file
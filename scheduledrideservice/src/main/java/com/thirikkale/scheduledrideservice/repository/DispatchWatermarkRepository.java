@@ -0,0 +1,7 @@
+package com.thirikkale.scheduledrideservice.repository;
+
+import com.thirikkale.scheduledrideservice.model.DispatchWatermark;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface DispatchWatermarkRepository extends MongoRepository<DispatchWatermark, String> {
+}
@@ -0,0 +1,18 @@
+package com.thirikkale.scheduledrideservice.repository;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.model.ScheduledSharedRideGroup;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A group produced by one matching pass together with the GROUPING rides it claims
+ */
+@Getter
+@AllArgsConstructor
+public class FormedGroup {
+    private final ScheduledSharedRideGroup group;
+    private final List<ScheduledRide> rides;
+}
@@ -0,0 +1,19 @@
+package com.thirikkale.scheduledrideservice.repository;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of persisting a matching pass. Every formed group ends up either fully
+ * persisted or rolled back. Only when the rollback itself fails is a group unresolved:
+ * it is marked FAILED, so dispatch skips it, and its rides need repair.
+ */
+@Getter
+public class GroupBatchWriteResult {
+    private final List<FormedGroup> persisted = new ArrayList<>();
+    private final List<FormedGroup> rolledBack = new ArrayList<>();
+    private final List<FormedGroup> unresolved = new ArrayList<>();
+    private final List<String> errors = new ArrayList<>();
+}
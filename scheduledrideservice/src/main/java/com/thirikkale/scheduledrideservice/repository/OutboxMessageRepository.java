@@ -0,0 +1,32 @@
+package com.thirikkale.scheduledrideservice.repository;
+
+import com.thirikkale.scheduledrideservice.model.OutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxMessageRepository extends MongoRepository<OutboxMessage, String> {
+
+    /**
+     * Ids of pending messages whose next attempt is due and that no relay is working on.
+     */
+    @Query(value = "{ 'status': 'PENDING', 'nextAttemptAt': { $lte: ?0 }, $or: [ { 'relayClaimedUntil': null }, { 'relayClaimedUntil': { $lt: ?0 } } ] }",
+            fields = "{ '_id': 1 }")
+    List<OutboxMessage> findRelayable(Instant now, Pageable page);
+
+    @Query("{ '_id': { $in: ?0 }, 'status': 'PENDING', $or: [ { 'relayClaimedUntil': null }, { 'relayClaimedUntil': { $lt: ?3 } } ] }")
+    @Update("{ $set: { 'relayClaimId': ?1, 'relayClaimedUntil': ?2 } }")
+    long claim(Collection<String> ids, String claimId, Instant claimedUntil, Instant now);
+
+    @Query("{ '_id': { $in: ?0 }, 'relayClaimId': ?1 }")
+    List<OutboxMessage> findClaimed(Collection<String> ids, String claimId);
+
+    @Query("{ '_id': { $in: ?0 }, 'relayClaimId': ?1 }")
+    @Update("{ $set: { 'status': 'SENT', 'sentAt': ?2 }, $unset: { 'relayClaimId': '', 'relayClaimedUntil': '' } }")
+    long markSent(Collection<String> ids, String claimId, Instant sentAt);
+}
@@ -0,0 +1,14 @@
+package com.thirikkale.scheduledrideservice.repository;
+
+import java.time.Instant;
+
+/**
+ * Cheap change marker for a set of rides: any insert or write moves the count or the latest
+ * updatedAt, so an unchanged marker means the set still reads the same.
+ */
+public record RideSetVersion(long count, Instant lastUpdatedAt) {
+
+    public String tag() {
+        return count + "-" + (lastUpdatedAt == null ? 0 : lastUpdatedAt.toEpochMilli());
+    }
+}
@@ -0,0 +1,35 @@
+package com.thirikkale.scheduledrideservice.repository;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
+import com.thirikkale.scheduledrideservice.util.RideCursor;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Listing reads in (scheduledTime, id) order, served by the status_time_id and time_id indexes.
+ * Empty statuses and null bounds mean no filter.
+ */
+public interface ScheduledRideListingRepository {
+
+    /**
+     * Up to limit rides strictly after the cursor, or from the start when it is null.
+     */
+    List<ScheduledRide> findPage(Collection<ScheduledRideStatus> statuses, Instant from, Instant to,
+                                 RideCursor after, int limit);
+
+    /**
+     * Every matching ride read lazily from one server cursor. The caller must close the stream.
+     */
+    Stream<ScheduledRide> streamAll(Collection<ScheduledRideStatus> statuses, Instant from, Instant to);
+
+    /**
+     * Version of a rider's rides matching the filters, computed server-side without returning them.
+     */
+    RideSetVersion riderRidesVersion(String riderId, Collection<ScheduledRideStatus> statuses, Instant from, Instant to);
+
+    RideSetVersion driverRidesVersion(String driverId, Collection<ScheduledRideStatus> statuses, Instant from, Instant to);
+}
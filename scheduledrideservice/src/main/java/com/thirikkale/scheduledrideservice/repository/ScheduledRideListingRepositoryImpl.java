@@ -0,0 +1,97 @@
+package com.thirikkale.scheduledrideservice.repository;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
+import com.thirikkale.scheduledrideservice.util.RideCursor;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+public class ScheduledRideListingRepositoryImpl implements ScheduledRideListingRepository {
+
+    private static final Sort KEYSET_ORDER = Sort.by("scheduledTime", "_id");
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${api.rides.stream.batchSize:500}") private int streamBatchSize;
+
+    @Override
+    public List<ScheduledRide> findPage(Collection<ScheduledRideStatus> statuses, Instant from, Instant to,
+                                        RideCursor after, int limit) {
+        List<Criteria> filters = filters(statuses, from, to);
+        if (after != null) {
+            // Seek past the last row instead of skipping, so deep pages cost the same as the first
+            filters.add(new Criteria().orOperator(
+                    where("scheduledTime").gt(after.scheduledTime()),
+                    where("scheduledTime").is(after.scheduledTime()).and("_id").gt(after.id())));
+        }
+        Query query = query(filters).with(KEYSET_ORDER).limit(limit);
+        return mongoTemplate.find(query, ScheduledRide.class);
+    }
+
+    @Override
+    public Stream<ScheduledRide> streamAll(Collection<ScheduledRideStatus> statuses, Instant from, Instant to) {
+        Query query = query(filters(statuses, from, to)).with(KEYSET_ORDER).cursorBatchSize(streamBatchSize);
+        return mongoTemplate.stream(query, ScheduledRide.class);
+    }
+
+    @Override
+    public RideSetVersion riderRidesVersion(String riderId, Collection<ScheduledRideStatus> statuses,
+                                            Instant from, Instant to) {
+        return version("riderId", riderId, statuses, from, to);
+    }
+
+    @Override
+    public RideSetVersion driverRidesVersion(String driverId, Collection<ScheduledRideStatus> statuses,
+                                             Instant from, Instant to) {
+        return version("driverId", driverId, statuses, from, to);
+    }
+
+    private RideSetVersion version(String ownerField, String ownerId, Collection<ScheduledRideStatus> statuses,
+                                   Instant from, Instant to) {
+        List<Criteria> filters = filters(statuses, from, to);
+        filters.add(where(ownerField).is(ownerId));
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(new Criteria().andOperator(filters)),
+                Aggregation.group().count().as("count").max("updatedAt").as("lastUpdatedAt"));
+        Document result = mongoTemplate.aggregate(aggregation, ScheduledRide.class, Document.class)
+                .getUniqueMappedResult();
+        if (result == null) return new RideSetVersion(0, null);
+        Date lastUpdatedAt = result.getDate("lastUpdatedAt");
+        return new RideSetVersion(((Number) result.get("count")).longValue(),
+                lastUpdatedAt == null ? null : lastUpdatedAt.toInstant());
+    }
+
+    private static List<Criteria> filters(Collection<ScheduledRideStatus> statuses, Instant from, Instant to) {
+        List<Criteria> filters = new ArrayList<>();
+        if (statuses != null && !statuses.isEmpty()) {
+            filters.add(where("status").in(statuses));
+        }
+        if (from != null) {
+            filters.add(where("scheduledTime").gte(from));
+        }
+        if (to != null) {
+            filters.add(where("scheduledTime").lt(to));
+        }
+        return filters;
+    }
+
+    private static Query query(List<Criteria> filters) {
+        return filters.isEmpty() ? new Query() : Query.query(new Criteria().andOperator(filters));
+    }
+}
@@ -1,13 +1,22 @@
 package com.thirikkale.scheduledrideservice.repository;
 
+import com.thirikkale.scheduledrideservice.model.NearbyRideResult;
 import com.thirikkale.scheduledrideservice.model.ScheduledRide;
 import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface ScheduledRideRepository extends MongoRepository<ScheduledRide, String> {
+public interface ScheduledRideRepository extends MongoRepository<ScheduledRide, String>,
+        ScheduledRideRepositoryCustom, ScheduledRideListingRepository {
     List<ScheduledRide> findByStatusAndScheduledTimeBetween(
                                 ScheduledRideStatus status, Instant start, Instant end);
 
@@ -17,6 +26,100 @@ public interface ScheduledRideRepository extends MongoRepository<ScheduledRide,
     List<ScheduledRide> findByIsSharedRideTrueAndStatusAndScheduledTimeBetween(
                                 ScheduledRideStatus status, Instant start, Instant end);
 
-        List<ScheduledRide> findByRiderId(String riderId);
-        List<ScheduledRide> findByDriverId(String driverId);
-}
\ No newline at end of file
+    // Only what ScheduledRideResponseDto shows; GeoJSON mirrors and dispatch bookkeeping stay in Mongo
+    String RESPONSE_FIELDS = "{ 'riderId': 1, 'pickupAddress': 1, 'pickupLatitude': 1, 'pickupLongitude': 1, "
+            + "'dropoffAddress': 1, 'dropoffLatitude': 1, 'dropoffLongitude': 1, 'passengers': 1, "
+            + "'isSharedRide': 1, 'scheduledTime': 1, 'status': 1, 'sharedGroupId': 1, 'rideType': 1, "
+            + "'vehicleType': 1, 'distanceKm': 1, 'waitingTimeMin': 1, 'isWomenOnly': 1, 'driverId': 1, "
+            + "'maxFare': 1, 'specialRequests': 1 }";
+
+    /**
+     * Just the id and updatedAt of a ride, for conditional GETs.
+     */
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'updatedAt': 1 }")
+    Optional<ScheduledRide> findVersionById(String rideId);
+
+    @Query(value = "{ 'riderId': ?0 }", fields = RESPONSE_FIELDS, sort = "{ 'scheduledTime': 1 }")
+    List<ScheduledRide> findByRiderId(String riderId);
+
+    @Query(value = "{ 'driverId': ?0 }", fields = RESPONSE_FIELDS, sort = "{ 'scheduledTime': 1 }")
+    List<ScheduledRide> findByDriverId(String driverId);
+
+    /**
+     * A rider's rides scheduled at or after the given instant, served by the rider_time index.
+     * Order comes from the pageable.
+     */
+    @Query(value = "{ 'riderId': ?0, 'status': { $in: ?1 }, 'scheduledTime': { $gte: ?2 } }", fields = RESPONSE_FIELDS)
+    Slice<ScheduledRide> findRiderRidesFrom(String riderId, Collection<ScheduledRideStatus> statuses,
+                                            Instant from, Pageable pageable);
+
+    @Query(value = "{ 'riderId': ?0, 'status': { $in: ?1 }, 'scheduledTime': { $lt: ?2 } }", fields = RESPONSE_FIELDS)
+    Slice<ScheduledRide> findRiderRidesBefore(String riderId, Collection<ScheduledRideStatus> statuses,
+                                              Instant before, Pageable pageable);
+
+    @Query(value = "{ 'driverId': ?0, 'status': { $in: ?1 }, 'scheduledTime': { $gte: ?2 } }", fields = RESPONSE_FIELDS)
+    Slice<ScheduledRide> findDriverRidesFrom(String driverId, Collection<ScheduledRideStatus> statuses,
+                                             Instant from, Pageable pageable);
+
+    @Query(value = "{ 'driverId': ?0, 'status': { $in: ?1 }, 'scheduledTime': { $lt: ?2 } }", fields = RESPONSE_FIELDS)
+    Slice<ScheduledRide> findDriverRidesBefore(String driverId, Collection<ScheduledRideStatus> statuses,
+                                               Instant before, Pageable pageable);
+
+    List<ScheduledRide> findByStatusIn(Collection<ScheduledRideStatus> statuses);
+
+    /**
+     * Rides scheduled in (after, upTo], served by the (status, isSharedRide, scheduledTime) index.
+     */
+    @Query("{ 'status': ?0, 'isSharedRide': ?1, 'scheduledTime': { $gt: ?2, $lte: ?3 } }")
+    List<ScheduledRide> findDueSlice(ScheduledRideStatus status, boolean isSharedRide, Instant after, Instant upTo);
+
+    /**
+     * SCHEDULED rides written after {@code since} with scheduledTime in (after, upTo], served by
+     * the (status, updatedAt) index.
+     */
+    @Query("{ 'status': 'SCHEDULED', 'updatedAt': { $gt: ?0 }, 'scheduledTime': { $gt: ?1, $lte: ?2 } }")
+    List<ScheduledRide> findScheduledUpdatedSince(Instant since, Instant after, Instant upTo);
+
+    List<ScheduledRide> findBySharedGroupIdInAndStatus(Collection<String> groupIds, ScheduledRideStatus status);
+
+    /**
+     * Moves the listed shared ride members that are still SCHEDULED or GROUPING to DISPATCHED in a
+     * single updateMany, tagging them with the group claim. Members cancelled since grouping keep
+     * their status and are left out of the claim.
+     */
+    @Query("{ '_id': { $in: ?0 }, 'status': { $in: ['SCHEDULED', 'GROUPING'] } }")
+    @Update("{ $set: { 'status': 'DISPATCHED', 'dispatchClaimedBy': ?1, 'dispatchClaimId': ?2, 'dispatchClaimedAt': ?3, 'updatedAt': ?3 } }")
+    long claimMembersForDispatch(Collection<String> ids, String claimedBy, String claimId, Instant now);
+
+    /**
+     * Moves the listed documents that are still SCHEDULED to DISPATCHED, tagging them with the claim.
+     * Replicas racing for the same documents each win a disjoint subset.
+     */
+    @Query("{ '_id': { $in: ?0 }, 'status': 'SCHEDULED' }")
+    @Update("{ $set: { 'status': 'DISPATCHED', 'dispatchClaimedBy': ?1, 'dispatchClaimId': ?2, 'dispatchClaimedAt': ?3, 'updatedAt': ?3 } }")
+    long claimForDispatch(Collection<String> ids, String claimedBy, String claimId, Instant now);
+
+    @Query("{ '_id': { $in: ?0 }, 'dispatchClaimId': ?1 }")
+    List<ScheduledRide> findClaimed(Collection<String> ids, String claimId);
+
+    /**
+     * Rides whose pickup point lies within maxDistanceMeters of the given point, nearest first.
+     * Statuses are passed as enum names since they are bound straight into the pipeline.
+     */
+    @Aggregation(pipeline = {
+            "{ $geoNear: { near: { type: 'Point', coordinates: [?1, ?0] }, key: 'pickupLocation', distanceField: 'distanceMeters', maxDistance: ?2, spherical: true, query: { status: { $in: ?3 } } } }",
+            "{ $project: { _id: 0, ride: '$$ROOT', distanceMeters: 1 } }"
+    })
+    List<NearbyRideResult> findByPickupNear(double latitude, double longitude, double maxDistanceMeters,
+                                            Collection<String> statuses);
+
+    /**
+     * Rides whose dropoff point lies within maxDistanceMeters of the given point, nearest first.
+     */
+    @Aggregation(pipeline = {
+            "{ $geoNear: { near: { type: 'Point', coordinates: [?1, ?0] }, key: 'dropoffLocation', distanceField: 'distanceMeters', maxDistance: ?2, spherical: true, query: { status: { $in: ?3 } } } }",
+            "{ $project: { _id: 0, ride: '$$ROOT', distanceMeters: 1 } }"
+    })
+    List<NearbyRideResult> findByDropoffNear(double latitude, double longitude, double maxDistanceMeters,
+                                             Collection<String> statuses);
+}
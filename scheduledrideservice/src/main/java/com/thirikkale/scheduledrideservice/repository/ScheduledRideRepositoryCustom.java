@@ -0,0 +1,34 @@
+package com.thirikkale.scheduledrideservice.repository;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Single-round-trip state transitions. Each method is one conditional findAndModify that only
+ * touches the changed fields and returns the post-image, or empty when the condition no longer
+ * holds, so concurrent writers cannot overwrite each other.
+ */
+public interface ScheduledRideRepositoryCustom {
+
+    /**
+     * Sets the driver if the ride is in one of the given statuses and has no driver yet.
+     */
+    Optional<ScheduledRide> assignDriverIfUnassigned(String rideId, String driverId,
+                                                     Collection<ScheduledRideStatus> statuses, Instant now);
+
+    /**
+     * Clears the driver if the ride is in one of the given statuses and has a driver.
+     * Unlike the other methods this returns the pre-image, so callers still see who was removed.
+     */
+    Optional<ScheduledRide> removeDriverIfAssigned(String rideId, Collection<ScheduledRideStatus> statuses,
+                                                   Instant now);
+
+    /**
+     * Sets the status of an existing ride.
+     */
+    Optional<ScheduledRide> updateStatus(String rideId, ScheduledRideStatus status, Instant now);
+}
@@ -0,0 +1,50 @@
+package com.thirikkale.scheduledrideservice.repository;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+public class ScheduledRideRepositoryCustomImpl implements ScheduledRideRepositoryCustom {
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<ScheduledRide> assignDriverIfUnassigned(String rideId, String driverId,
+                                                            Collection<ScheduledRideStatus> statuses, Instant now) {
+        Criteria unassigned = new Criteria().orOperator(where("driverId").is(null), where("driverId").is(""));
+        Query query = Query.query(where("_id").is(rideId).and("status").in(statuses).andOperator(unassigned));
+        Update update = new Update().set("driverId", driverId).set("updatedAt", now);
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update, RETURN_NEW, ScheduledRide.class));
+    }
+
+    @Override
+    public Optional<ScheduledRide> removeDriverIfAssigned(String rideId, Collection<ScheduledRideStatus> statuses,
+                                                          Instant now) {
+        Query query = Query.query(where("_id").is(rideId).and("status").in(statuses)
+                .and("driverId").nin(Arrays.asList(null, "")));
+        Update update = new Update().unset("driverId").set("updatedAt", now);
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update, ScheduledRide.class));
+    }
+
+    @Override
+    public Optional<ScheduledRide> updateStatus(String rideId, ScheduledRideStatus status, Instant now) {
+        Query query = Query.query(where("_id").is(rideId));
+        Update update = new Update().set("status", status).set("updatedAt", now);
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update, RETURN_NEW, ScheduledRide.class));
+    }
+}
@@ -3,11 +3,26 @@ package com.thirikkale.scheduledrideservice.repository;
 import com.thirikkale.scheduledrideservice.model.ScheduledSharedRideGroup;
 import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
-public interface ScheduledSharedRideGroupRepository extends MongoRepository<ScheduledSharedRideGroup, String> {
+public interface ScheduledSharedRideGroupRepository extends MongoRepository<ScheduledSharedRideGroup, String>,
+        ScheduledSharedRideGroupRepositoryCustom {
     List<ScheduledSharedRideGroup> findByStatusAndScheduledWindowStartLessThanEqualAndScheduledWindowEndGreaterThanEqual(
             ScheduledRideStatus status, Instant end, Instant start);
+
+    /**
+     * Moves the listed documents that are still SCHEDULED to DISPATCHED, tagging them with the claim.
+     * Replicas racing for the same documents each win a disjoint subset.
+     */
+    @Query("{ '_id': { $in: ?0 }, 'status': 'SCHEDULED' }")
+    @Update("{ $set: { 'status': 'DISPATCHED', 'dispatchClaimedBy': ?1, 'dispatchClaimId': ?2, 'dispatchClaimedAt': ?3, 'updatedAt': ?3 } }")
+    long claimForDispatch(Collection<String> ids, String claimedBy, String claimId, Instant now);
+
+    @Query("{ '_id': { $in: ?0 }, 'dispatchClaimId': ?1 }")
+    List<ScheduledSharedRideGroup> findClaimed(Collection<String> ids, String claimId);
 }
\ No newline at end of file
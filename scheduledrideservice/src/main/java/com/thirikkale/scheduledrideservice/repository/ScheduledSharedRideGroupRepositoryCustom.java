@@ -0,0 +1,15 @@
+package com.thirikkale.scheduledrideservice.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ScheduledSharedRideGroupRepositoryCustom {
+
+    /**
+     * Persists all groups formed in one matching pass with a constant number of bulk writes
+     * per collection: groups are inserted, their rides are moved GROUPING -> SCHEDULED only if
+     * still unclaimed, and members are inserted for groups whose rides were all claimed.
+     * Groups that could not be completed are rolled back so their rides return to GROUPING.
+     */
+    GroupBatchWriteResult saveFormedGroups(List<FormedGroup> formed, Instant now);
+}
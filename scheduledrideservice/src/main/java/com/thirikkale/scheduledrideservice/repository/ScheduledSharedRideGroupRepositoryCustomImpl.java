@@ -0,0 +1,171 @@
+package com.thirikkale.scheduledrideservice.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.model.ScheduledSharedRideGroup;
+import com.thirikkale.scheduledrideservice.model.ScheduledSharedRideMember;
+import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.*;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+public class ScheduledSharedRideGroupRepositoryCustomImpl implements ScheduledSharedRideGroupRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public GroupBatchWriteResult saveFormedGroups(List<FormedGroup> formed, Instant now) {
+        GroupBatchWriteResult result = new GroupBatchWriteResult();
+        if (formed.isEmpty()) {
+            return result;
+        }
+        // Ids are assigned up front so rides and members can reference groups in the same pass
+        for (FormedGroup f : formed) {
+            if (f.getGroup().getId() == null) {
+                f.getGroup().setId(new ObjectId().toHexString());
+            }
+        }
+
+        // 1. Insert every group
+        BulkOperations groupOps = mongoTemplate.bulkOps(BulkMode.UNORDERED, ScheduledSharedRideGroup.class);
+        groupOps.insert(formed.stream().map(FormedGroup::getGroup).toList());
+        Set<Integer> failedGroups = execute(groupOps, "group insert", result);
+
+        List<FormedGroup> inserted = new ArrayList<>();
+        for (int i = 0; i < formed.size(); i++) {
+            (failedGroups.contains(i) ? result.getRolledBack() : inserted).add(formed.get(i));
+        }
+        if (inserted.isEmpty()) {
+            return result;
+        }
+
+        List<FormedGroup> incomplete = new ArrayList<>();
+        try {
+            // 2. Claim the rides, only if nobody grouped, cancelled or dispatched them meanwhile
+            BulkOperations rideOps = mongoTemplate.bulkOps(BulkMode.UNORDERED, ScheduledRide.class);
+            for (FormedGroup f : inserted) {
+                for (ScheduledRide ride : f.getRides()) {
+                    rideOps.updateOne(
+                            Query.query(where("_id").is(ride.getId())
+                                    .and("status").is(ScheduledRideStatus.GROUPING)
+                                    .and("sharedGroupId").is(null)),
+                            new Update()
+                                    .set("sharedGroupId", f.getGroup().getId())
+                                    .set("status", ScheduledRideStatus.SCHEDULED)
+                                    .set("updatedAt", now));
+                }
+            }
+            execute(rideOps, "ride claim", result);
+
+            // 3. Read back which rides each group actually claimed
+            List<String> groupIds = inserted.stream().map(f -> f.getGroup().getId()).toList();
+            Query claimedQuery = Query.query(where("sharedGroupId").in(groupIds));
+            claimedQuery.fields().include("_id", "sharedGroupId");
+            Map<String, Set<String>> claimed = new HashMap<>();
+            for (ScheduledRide r : mongoTemplate.find(claimedQuery, ScheduledRide.class)) {
+                claimed.computeIfAbsent(r.getSharedGroupId(), k -> new HashSet<>()).add(r.getId());
+            }
+
+            List<FormedGroup> complete = new ArrayList<>();
+            for (FormedGroup f : inserted) {
+                Set<String> got = claimed.getOrDefault(f.getGroup().getId(), Set.of());
+                boolean all = f.getRides().stream().allMatch(r -> got.contains(r.getId()));
+                (all ? complete : incomplete).add(f);
+            }
+
+            // 4. Members for the complete groups
+            List<ScheduledSharedRideMember> members = new ArrayList<>();
+            List<FormedGroup> memberOwner = new ArrayList<>();
+            for (FormedGroup f : complete) {
+                for (ScheduledRide ride : f.getRides()) {
+                    members.add(ScheduledSharedRideMember.builder()
+                            .groupId(f.getGroup().getId()).rideId(ride.getId()).build());
+                    memberOwner.add(f);
+                }
+            }
+            if (!members.isEmpty()) {
+                BulkOperations memberOps = mongoTemplate.bulkOps(BulkMode.UNORDERED, ScheduledSharedRideMember.class);
+                memberOps.insert(members);
+                Set<FormedGroup> failedMembers = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (int i : execute(memberOps, "member insert", result)) {
+                    failedMembers.add(memberOwner.get(i));
+                }
+                for (FormedGroup f : complete) {
+                    (failedMembers.contains(f) ? incomplete : result.getPersisted()).add(f);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Unknown how far the pass got: everything not confirmed complete is rolled back
+            result.getErrors().add("group persistence aborted: " + e.getMessage());
+            incomplete.clear();
+            inserted.stream().filter(f -> !result.getPersisted().contains(f)).forEach(incomplete::add);
+        }
+
+        // 5. Roll back anything that could not be completed
+        if (!incomplete.isEmpty()) {
+            List<String> ids = incomplete.stream().map(f -> f.getGroup().getId()).toList();
+            try {
+                // Only rides still as this pass claimed them; one cancelled or dispatched meanwhile keeps that state
+                mongoTemplate.updateMulti(
+                        Query.query(where("sharedGroupId").in(ids)
+                                .and("status").is(ScheduledRideStatus.SCHEDULED)
+                                .and("updatedAt").is(now)),
+                        new Update()
+                                .unset("sharedGroupId")
+                                .set("status", ScheduledRideStatus.GROUPING)
+                                .set("updatedAt", now),
+                        ScheduledRide.class);
+                mongoTemplate.remove(Query.query(where("groupId").in(ids)), ScheduledSharedRideMember.class);
+                mongoTemplate.remove(Query.query(where("_id").in(ids)), ScheduledSharedRideGroup.class);
+                result.getRolledBack().addAll(incomplete);
+            } catch (RuntimeException e) {
+                result.getErrors().add("group rollback failed: " + e.getMessage());
+                result.getUnresolved().addAll(incomplete);
+                markFailed(ids, now, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Best effort: the dispatch claim only takes SCHEDULED groups, so a FAILED one is never sent
+     * out with members that may already have been reverted.
+     */
+    private void markFailed(List<String> groupIds, Instant now, GroupBatchWriteResult result) {
+        try {
+            mongoTemplate.updateMulti(Query.query(where("_id").in(groupIds)),
+                    new Update().set("status", ScheduledRideStatus.FAILED).set("updatedAt", now),
+                    ScheduledSharedRideGroup.class);
+        } catch (RuntimeException e) {
+            result.getErrors().add("marking groups " + groupIds + " FAILED failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs a bulk write and returns the positions of the operations that failed.
+     */
+    private static Set<Integer> execute(BulkOperations ops, String what, GroupBatchWriteResult result) {
+        try {
+            ops.execute();
+            return Set.of();
+        } catch (BulkOperationException e) {
+            Set<Integer> failed = new HashSet<>();
+            for (BulkWriteError error : e.getErrors()) {
+                failed.add(error.getIndex());
+                result.getErrors().add(what + " #" + error.getIndex() + ": " + error.getMessage());
+            }
+            return failed;
+        }
+    }
+}
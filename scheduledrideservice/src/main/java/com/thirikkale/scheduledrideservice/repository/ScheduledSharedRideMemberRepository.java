@@ -3,8 +3,9 @@ package com.thirikkale.scheduledrideservice.repository;
 import com.thirikkale.scheduledrideservice.model.ScheduledSharedRideMember;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ScheduledSharedRideMemberRepository extends MongoRepository<ScheduledSharedRideMember, String> {
-    List<ScheduledSharedRideMember> findByGroupId(String groupId);
+    List<ScheduledSharedRideMember> findByGroupIdIn(Collection<String> groupIds);
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.thirikkale.scheduledrideservice.scheduler;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How late and in what batches rides leave the scheduler, per solo/shared type. Recorded by the
+ * services once a dispatch has committed, whichever path (wheel, slice, sweeper) triggered it.
+ */
+@Component
+@RequiredArgsConstructor
+public class DispatchMetrics {
+
+    public static final String SOLO = "solo";
+    public static final String SHARED = "shared";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${scheduler.dispatch.leadTimeMinutes:10}") private int leadTimeMinutes;
+
+    private Timer soloLag;
+    private Timer sharedLag;
+    private DistributionSummary soloBatch;
+    private DistributionSummary sharedBatch;
+
+    @PostConstruct
+    void registerMeters() {
+        soloLag = lag(SOLO);
+        sharedLag = lag(SHARED);
+        soloBatch = batch(SOLO);
+        sharedBatch = batch(SHARED);
+    }
+
+    private Timer lag(String type) {
+        return Timer.builder("scheduled_rides.dispatch.lag")
+                .description("Time between a ride becoming due (scheduledTime - leadTime) and its dispatch")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary batch(String type) {
+        return DistributionSummary.builder("scheduled_rides.dispatch.rides")
+                .description("Rides dispatched per dispatch pass")
+                .baseUnit("rides")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records one dispatch pass and the lag of every ride in it. Later members of a shared group
+     * go out with its first rider, ahead of their own due time, and count as zero lag.
+     */
+    public void dispatched(String type, Collection<ScheduledRide> rides, Instant now) {
+        boolean shared = SHARED.equals(type);
+        (shared ? sharedBatch : soloBatch).record(rides.size());
+        Timer lag = shared ? sharedLag : soloLag;
+        long leadMillis = leadTimeMinutes * 60_000L;
+        for (ScheduledRide ride : rides) {
+            if (ride.getScheduledTime() == null) continue;
+            long dueMillis = ride.getScheduledTime().toEpochMilli() - leadMillis;
+            lag.record(Math.max(0, now.toEpochMilli() - dueMillis), TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.thirikkale.scheduledrideservice.scheduler;
+
+import com.thirikkale.scheduledrideservice.model.DispatchWatermark;
+import com.thirikkale.scheduledrideservice.repository.DispatchWatermarkRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Computes the scheduledTime slices the dispatch jobs scan.
+ *
+ * A regular tick reads (watermark - overlap, dispatchBefore]; the overlap picks up rides that
+ * were booked or grouped shortly after their slice was scanned. Anything older that is still
+ * SCHEDULED is a straggler for the sweeper, which looks back at most maxOverdueMinutes.
+ */
+@Component
+@RequiredArgsConstructor
+public class DispatchWatermarks {
+
+    private final DispatchWatermarkRepository repo;
+
+    @Value("${scheduler.dispatch.watermarkOverlapMinutes:10}") private int overlapMinutes;
+    @Value("${scheduler.dispatch.maxOverdueMinutes:120}") private int maxOverdueMinutes;
+
+    /**
+     * Exclusive lower bound of the next regular dispatch slice for the given job.
+     */
+    public Instant sliceStart(String job) {
+        Instant floor = sweepStart();
+        Instant start = repo.findById(job)
+                .map(w -> w.getWatermark().minus(overlapMinutes, ChronoUnit.MINUTES))
+                .orElse(floor);
+        return start.isBefore(floor) ? floor : start;
+    }
+
+    /**
+     * Exclusive lower bound of the straggler sweep; older rides are left alone.
+     */
+    public Instant sweepStart() {
+        return Instant.now().minus(maxOverdueMinutes, ChronoUnit.MINUTES);
+    }
+
+    /**
+     * Records that the job has scanned everything up to the given instant. Never moves backwards.
+     */
+    public void advance(String job, Instant scannedUpTo) {
+        DispatchWatermark current = repo.findById(job).orElse(null);
+        if (current != null && current.getWatermark() != null && !scannedUpTo.isAfter(current.getWatermark())) {
+            return;
+        }
+        repo.save(DispatchWatermark.builder()
+                .id(job)
+                .watermark(scannedUpTo)
+                .updatedAt(Instant.now())
+                .build());
+    }
+}
@@ -0,0 +1,215 @@
+package com.thirikkale.scheduledrideservice.scheduler;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
+import com.thirikkale.scheduledrideservice.repository.ScheduledRideRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds every upcoming dispatch on a timing wheel so each solo ride or shared group fires
+ * at scheduledTime - leadTime, instead of waiting for the next Mongo poll.
+ *
+ * Fed by the ride and matching services on every write that changes what is due, and
+ * reloaded from Mongo at startup and on each reconciliation pass. Firing only hands back
+ * ids; the services re-check status in Mongo, so a stale entry dispatches nothing.
+ *
+ * Every replica tracks every ride, but entries owned by another replica fire a grace period
+ * late, so the owner normally dispatches them and the rest only step in when it is gone.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DispatchWheel {
+
+    private static final String RIDE_KEY = "ride:";
+    private static final String GROUP_KEY = "group:";
+
+    private final ScheduledRideRepository rideRepo;
+    private final SchedulerNode schedulerNode;
+
+    @Value("${scheduler.dispatch.wheel.enabled:true}") private boolean enabled;
+    @Value("${scheduler.dispatch.wheel.tickMillis:1000}") private long tickMillis;
+    @Value("${scheduler.dispatch.wheel.wheelSize:60}") private int wheelSize;
+    @Value("${scheduler.dispatch.wheel.horizonMinutes:1440}") private int horizonMinutes;
+    @Value("${scheduler.dispatch.wheel.takeoverGraceSeconds:15}") private int takeoverGraceSeconds;
+    @Value("${scheduler.dispatch.wheel.retrySeconds:30}") private int retrySeconds;
+    @Value("${scheduler.dispatch.leadTimeMinutes:10}") private int leadTimeMinutes;
+    @Value("${scheduler.dispatch.watermarkOverlapMinutes:10}") private int overlapMinutes;
+
+    private HierarchicalTimingWheel<String> wheel;
+    // Earliest member time per group, a group fires when its first rider is due
+    private final Map<String, Long> groupDue = new ConcurrentHashMap<>();
+    // Where the last load or refresh left off: the horizon it read up to, and when it ran
+    private volatile Instant loadedUpTo;
+    private volatile Instant loadedAt;
+
+    @PostConstruct
+    void init() {
+        wheel = new HierarchicalTimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int size() {
+        return wheel.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) return;
+        int loaded = reload();
+        log.info("Dispatch wheel loaded {} upcoming solo rides and groups", loaded);
+    }
+
+    /**
+     * Re-reads everything still SCHEDULED up to the horizon, picking up rides booked or grouped
+     * on other replicas. Entries already on the wheel are simply re-filed.
+     */
+    public int reload() {
+        if (!enabled) return 0;
+        Instant now = Instant.now();
+        Instant upTo = now.plus(horizonMinutes + leadTimeMinutes, ChronoUnit.MINUTES);
+        // Anything older is already the straggler sweeper's job
+        Instant after = now.minus(leadTimeMinutes, ChronoUnit.MINUTES);
+        List<ScheduledRide> upcoming = new ArrayList<>(
+                rideRepo.findDueSlice(ScheduledRideStatus.SCHEDULED, false, after, upTo));
+        upcoming.addAll(rideRepo.findDueSlice(ScheduledRideStatus.SCHEDULED, true, after, upTo));
+        upcoming.forEach(this::track);
+        loadedUpTo = upTo;
+        loadedAt = now;
+        return wheel.size();
+    }
+
+    /**
+     * Incremental {@link #reload()}: only the rides that entered the horizon since the last pass,
+     * plus those written since then (booked, grouped or rescheduled on other replicas). Writes on
+     * this replica are already on the wheel.
+     *
+     * @return number of rides read
+     */
+    public int refresh() {
+        if (!enabled) return 0;
+        Instant lastUpTo = loadedUpTo;
+        Instant lastAt = loadedAt;
+        if (lastUpTo == null || lastAt == null) {
+            return reload();
+        }
+        Instant now = Instant.now();
+        Instant upTo = now.plus(horizonMinutes + leadTimeMinutes, ChronoUnit.MINUTES);
+        Instant after = now.minus(leadTimeMinutes, ChronoUnit.MINUTES);
+        List<ScheduledRide> changed = new ArrayList<>();
+        if (upTo.isAfter(lastUpTo)) {
+            changed.addAll(rideRepo.findDueSlice(ScheduledRideStatus.SCHEDULED, false, lastUpTo, upTo));
+            changed.addAll(rideRepo.findDueSlice(ScheduledRideStatus.SCHEDULED, true, lastUpTo, upTo));
+        }
+        // The overlap covers writes committed late or stamped by a replica with a lagging clock
+        changed.addAll(rideRepo.findScheduledUpdatedSince(
+                lastAt.minus(overlapMinutes, ChronoUnit.MINUTES), after, upTo));
+        changed.forEach(this::track);
+        loadedUpTo = upTo;
+        loadedAt = now;
+        return changed.size();
+    }
+
+    /**
+     * Schedules, re-schedules or cancels the dispatch of a ride after it was written.
+     */
+    public void track(ScheduledRide ride) {
+        if (!enabled || ride.getId() == null || ride.getScheduledTime() == null) return;
+        boolean scheduled = ride.getStatus() == ScheduledRideStatus.SCHEDULED;
+        if (Boolean.TRUE.equals(ride.getIsSharedRide())) {
+            // Grouped rides dispatch with their group; leaving a group does not cancel it
+            if (scheduled && ride.getSharedGroupId() != null) {
+                long due = dueMillis(ride, ride.getSharedGroupId());
+                long earliest = groupDue.merge(ride.getSharedGroupId(), due, Math::min);
+                wheel.schedule(GROUP_KEY + ride.getSharedGroupId(), earliest);
+            }
+        } else if (scheduled) {
+            wheel.schedule(RIDE_KEY + ride.getId(), dueMillis(ride, ride.getId()));
+        } else {
+            wheel.cancel(RIDE_KEY + ride.getId());
+        }
+    }
+
+    public void trackAll(Collection<ScheduledRide> rides) {
+        rides.forEach(this::track);
+    }
+
+    /**
+     * Drops groups that were dispatched through another path.
+     */
+    public void forgetGroups(Collection<String> groupIds) {
+        if (!enabled) return;
+        for (String groupId : groupIds) {
+            groupDue.remove(groupId);
+            wheel.cancel(GROUP_KEY + groupId);
+        }
+    }
+
+    /**
+     * Puts rides whose dispatch could not be committed back on the wheel after a back-off.
+     */
+    public void retryRides(Collection<String> rideIds) {
+        if (!enabled) return;
+        long at = System.currentTimeMillis() + retrySeconds * 1000L;
+        rideIds.forEach(id -> wheel.schedule(RIDE_KEY + id, at));
+    }
+
+    public void retryGroups(Collection<String> groupIds) {
+        if (!enabled) return;
+        long at = System.currentTimeMillis() + retrySeconds * 1000L;
+        for (String groupId : groupIds) {
+            groupDue.put(groupId, at);
+            wheel.schedule(GROUP_KEY + groupId, at);
+        }
+    }
+
+    /**
+     * Advances the wheel to now and returns what has become due since the last call.
+     */
+    public Due advance() {
+        if (!enabled) return new Due(List.of(), List.of());
+        List<String> rideIds = new ArrayList<>();
+        List<String> groupIds = new ArrayList<>();
+        for (String key : wheel.advanceTo(System.currentTimeMillis())) {
+            if (key.startsWith(RIDE_KEY)) {
+                rideIds.add(key.substring(RIDE_KEY.length()));
+            } else {
+                String groupId = key.substring(GROUP_KEY.length());
+                groupDue.remove(groupId);
+                groupIds.add(groupId);
+            }
+        }
+        return new Due(rideIds, groupIds);
+    }
+
+    private long dueMillis(ScheduledRide ride, String ownerKey) {
+        Instant due = ride.getScheduledTime().minus(leadTimeMinutes, ChronoUnit.MINUTES);
+        if (!schedulerNode.owns(ownerKey)) {
+            due = due.plusSeconds(takeoverGraceSeconds);
+        }
+        return due.toEpochMilli();
+    }
+
+    public record Due(List<String> rideIds, List<String> groupIds) {
+        public boolean isEmpty() {
+            return rideIds.isEmpty() && groupIds.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.thirikkale.scheduledrideservice.scheduler;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hierarchical timing wheel keyed by K.
+ *
+ * The root wheel has {@code wheelSize} buckets of {@code tickMillis}; each overflow wheel is
+ * created on demand with a tick equal to the interval of the wheel below it, so scheduling
+ * and cancelling are O(1) however far ahead a key is due. {@link #advanceTo(long)} returns the
+ * keys whose due time has passed, at most one tick late. Overflow buckets are cascaded down
+ * to finer wheels as time reaches them.
+ *
+ * Re-scheduling a key replaces its previous due time; stale bucket entries are skipped lazily.
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<K, Entry<K>> live = new HashMap<>();
+    private final List<Entry<K>> overdue = new ArrayList<>();
+    private final Level<K> root;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.root = new Level<>(tickMillis, wheelSize, Math.floorDiv(startMillis, tickMillis) * tickMillis);
+    }
+
+    /**
+     * Schedules or re-schedules a key. Keys already due are returned by the next advance.
+     */
+    public void schedule(K key, long dueMillis) {
+        lock.lock();
+        try {
+            Entry<K> entry = new Entry<>(key, dueMillis);
+            live.put(key, entry);
+            add(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean cancel(K key) {
+        lock.lock();
+        try {
+            return live.remove(key) != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean contains(K key) {
+        lock.lock();
+        try {
+            return live.containsKey(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return live.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the wheel to the given time.
+     *
+     * @return keys whose due time is now in the past, each returned once
+     */
+    public List<K> advanceTo(long nowMillis) {
+        lock.lock();
+        try {
+            List<Entry<K>> fired = new ArrayList<>(overdue);
+            overdue.clear();
+
+            // Root: every completed tick expires its bucket
+            while (root.currentTime + root.tick <= nowMillis) {
+                if (nowMillis - root.currentTime >= root.interval) {
+                    // A whole rotation went by, re-file everything against the new time
+                    List<Entry<K>> all = root.drainAll();
+                    root.currentTime = Math.floorDiv(nowMillis, root.tick) * root.tick;
+                    all.forEach(this::add);
+                    break;
+                }
+                Set<Entry<K>> bucket = root.bucket(root.currentTime);
+                fired.addAll(bucket);
+                bucket.clear();
+                root.currentTime += root.tick;
+            }
+
+            // Overflow wheels, finest first: cascade buckets that time has reached
+            for (Level<K> level = root.overflow; level != null; level = level.overflow) {
+                long target = Math.floorDiv(nowMillis, level.tick) * level.tick;
+                while (level.currentTime < target) {
+                    if (target - level.currentTime >= level.interval) {
+                        List<Entry<K>> all = level.drainAll();
+                        level.currentTime = target;
+                        all.forEach(this::add);
+                        break;
+                    }
+                    level.currentTime += level.tick;
+                    Set<Entry<K>> bucket = level.bucket(level.currentTime);
+                    List<Entry<K>> cascade = new ArrayList<>(bucket);
+                    bucket.clear();
+                    cascade.forEach(this::add);
+                }
+            }
+            fired.addAll(overdue);
+            overdue.clear();
+
+            List<K> keys = new ArrayList<>(fired.size());
+            for (Entry<K> e : fired) {
+                // Skip cancelled or re-scheduled entries
+                if (live.get(e.key) == e) {
+                    live.remove(e.key);
+                    keys.add(e.key);
+                }
+            }
+            return keys;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void add(Entry<K> entry) {
+        if (live.get(entry.key) != entry) {
+            return;
+        }
+        if (entry.due < root.currentTime) {
+            overdue.add(entry);
+            return;
+        }
+        Level<K> level = root;
+        while (entry.due >= level.currentTime + level.interval) {
+            if (level.overflow == null) {
+                long tick = level.interval;
+                level.overflow = new Level<>(tick, level.size, Math.floorDiv(level.currentTime, tick) * tick);
+            }
+            level = level.overflow;
+        }
+        level.bucket(entry.due).add(entry);
+    }
+
+    private static final class Entry<K> {
+        final K key;
+        final long due;
+
+        Entry(K key, long due) {
+            this.key = key;
+            this.due = due;
+        }
+    }
+
+    private static final class Level<K> {
+        final long tick;
+        final int size;
+        final long interval;
+        final List<Set<Entry<K>>> buckets;
+        long currentTime;
+        Level<K> overflow;
+
+        Level(long tick, int size, long currentTime) {
+            this.tick = tick;
+            this.size = size;
+            this.interval = tick * size;
+            this.currentTime = currentTime;
+            this.buckets = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                buckets.add(new HashSet<>());
+            }
+        }
+
+        Set<Entry<K>> bucket(long time) {
+            return buckets.get((int) Math.floorMod(Math.floorDiv(time, tick), (long) size));
+        }
+
+        List<Entry<K>> drainAll() {
+            List<Entry<K>> all = new ArrayList<>();
+            for (Set<Entry<K>> b : buckets) {
+                all.addAll(b);
+                b.clear();
+            }
+            return all;
+        }
+    }
+}
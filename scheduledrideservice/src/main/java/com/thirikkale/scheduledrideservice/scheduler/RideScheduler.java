@@ -1,5 +1,9 @@
 package com.thirikkale.scheduledrideservice.scheduler;
 
+import com.thirikkale.scheduledrideservice.dto.ActiveIndexConsistencyDto;
+import com.thirikkale.scheduledrideservice.index.ActiveRideIndex;
+import com.thirikkale.scheduledrideservice.messaging.OutboxRelay;
+import com.thirikkale.scheduledrideservice.model.SchedulerLease;
 import com.thirikkale.scheduledrideservice.service.SharedRideMatchingService;
 import com.thirikkale.scheduledrideservice.service.ScheduledRideService;
 import lombok.RequiredArgsConstructor;
@@ -8,6 +12,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 
@@ -18,21 +23,95 @@ public class RideScheduler {
 
     private final ScheduledRideService scheduledRideService;
     private final SharedRideMatchingService sharedRideMatchingService;
+    private final ActiveRideIndex activeRideIndex;
+    private final DispatchWheel dispatchWheel;
+    private final SchedulerLeases leases;
+    private final SchedulerNode schedulerNode;
+    private final OutboxRelay outboxRelay;
 
     @Value("${scheduler.dispatch.leadTimeMinutes:10}") private int leadTimeMinutes;
+    @Value("${scheduler.matching.interval:120000}") private long matchingInterval;
+    @Value("${scheduler.dispatch.interval:300000}") private long dispatchInterval;
+    @Value("${scheduler.dispatch.sweepInterval:300000}") private long sweepInterval;
+    @Value("${scheduler.activeIndex.reconcileInterval:300000}") private long reconcileInterval;
 
     @Scheduled(fixedDelayString = "${scheduler.matching.interval:120000}")
     public void matchSharedRides() {
+        // Grouping needs every candidate in view, so one replica matches per tick
+        if (!leases.tryAcquire(SchedulerLease.MATCHING, leaseTtl(matchingInterval))) return;
         Instant now = Instant.now();
         Instant windowStart = now.minus(leadTimeMinutes + 15, ChronoUnit.MINUTES);
         Instant windowEnd = now.plus(leadTimeMinutes + 15, ChronoUnit.MINUTES);
         sharedRideMatchingService.buildOrUpdateGroups(windowStart, windowEnd);
     }
 
-    @Scheduled(fixedDelayString = "${scheduler.dispatch.interval:30000}")
+    // Fires rides and groups off the timing wheel at their exact dispatch time
+    @Scheduled(fixedRateString = "${scheduler.dispatch.wheel.tickMillis:1000}")
+    public void dispatchFromWheel() {
+        DispatchWheel.Due due = dispatchWheel.advance();
+        if (due.isEmpty()) return;
+        if (!due.rideIds().isEmpty()) scheduledRideService.dispatchSoloRides(due.rideIds());
+        if (!due.groupIds().isEmpty()) sharedRideMatchingService.dispatchGroups(due.groupIds());
+    }
+
+    // With the wheel enabled this is only a reconciliation pass for writes the wheel did not see
+    @Scheduled(fixedDelayString = "${scheduler.dispatch.interval:300000}")
     public void dispatchDue() {
-        Instant dispatchBefore = Instant.now().plus(leadTimeMinutes, ChronoUnit.MINUTES);
-        scheduledRideService.dispatchDueSoloRides(dispatchBefore);
-        sharedRideMatchingService.dispatchDueGroups(dispatchBefore);
+        boolean partitionMoved = schedulerNode.refreshPartitions();
+        if (leases.tryAcquire(SchedulerLease.DISPATCH_RECONCILE, leaseTtl(dispatchInterval))) {
+            Instant dispatchBefore = Instant.now().plus(leadTimeMinutes, ChronoUnit.MINUTES);
+            scheduledRideService.dispatchDueSoloRides(dispatchBefore);
+            sharedRideMatchingService.dispatchDueGroups(dispatchBefore);
+        }
+        // Every replica keeps its own wheel; a moved partition changes every entry's takeover grace
+        if (partitionMoved) {
+            dispatchWheel.reload();
+        } else {
+            dispatchWheel.refresh();
+        }
+    }
+
+    // Less frequent pass for rides that became due behind the dispatch watermark
+    @Scheduled(fixedDelayString = "${scheduler.dispatch.sweepInterval:300000}")
+    public void sweepOverdue() {
+        if (!leases.tryAcquire(SchedulerLease.SWEEPER, leaseTtl(sweepInterval))) return;
+        scheduledRideService.sweepOverdueSoloRides();
+        sharedRideMatchingService.sweepOverdueGroups();
+    }
+
+    // Messages enqueued on this node go out on the next tick; the backlog poll runs on one replica
+    @Scheduled(fixedDelayString = "${rabbitmq.outbox.relayInterval:500}")
+    public void relayOutbox() {
+        if (outboxRelay.takeWakeUp()) {
+            // Batches are claimed, so this is safe next to the lease holder's poll
+            outboxRelay.drain();
+            return;
+        }
+        if (!outboxRelay.pollDue()) return;
+        if (leases.tryAcquire(SchedulerLease.OUTBOX_RELAY, leaseTtl(outboxRelay.maxPollDelayMillis()))) {
+            outboxRelay.poll();
+        } else {
+            // Check back later in case the holder goes away
+            outboxRelay.backOff();
+        }
+    }
+
+    // Held across two ticks so the lease does not lapse between renewals of a live holder
+    private static Duration leaseTtl(long intervalMillis) {
+        return Duration.ofMillis(intervalMillis * 2);
+    }
+
+    // Catches writes made by other replicas, which this node's index never sees
+    @Scheduled(fixedDelayString = "${scheduler.activeIndex.reconcileInterval:300000}")
+    public void reconcileActiveIndex() {
+        if (!activeRideIndex.isReady()) return;
+        // Older stale writes are caught by the comparison below, so removals need not be remembered longer
+        activeRideIndex.expireTombstones(Instant.now().minusMillis(reconcileInterval));
+        ActiveIndexConsistencyDto report = activeRideIndex.verifyAgainstMongo();
+        if (!report.getConsistent()) {
+            log.warn("Active ride index drifted from MongoDB (missing={}, stale={}, mismatched={}) - rebuilding",
+                    report.getMissingFromIndex().size(), report.getStaleInIndex().size(), report.getMismatched().size());
+            activeRideIndex.rebuild();
+        }
     }
 }
\ No newline at end of file
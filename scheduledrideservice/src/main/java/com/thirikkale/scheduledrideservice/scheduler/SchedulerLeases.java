@@ -0,0 +1,53 @@
+package com.thirikkale.scheduledrideservice.scheduler;
+
+import com.thirikkale.scheduledrideservice.model.SchedulerLease;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Mongo-backed leases for jobs that should tick on a single replica.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SchedulerLeases {
+
+    private final MongoTemplate mongoTemplate;
+    private final SchedulerNode node;
+
+    /**
+     * Takes or renews the lease for the given job.
+     *
+     * @return true when this node holds the lease until now + ttl
+     */
+    public boolean tryAcquire(String job, Duration ttl) {
+        Instant now = Instant.now();
+        // Free, expired, or already ours
+        Query query = Query.query(Criteria.where("_id").is(job).orOperator(
+                Criteria.where("expiresAt").lt(now),
+                Criteria.where("owner").is(node.getNodeId())));
+        Update update = new Update()
+                .set("owner", node.getNodeId())
+                .set("expiresAt", now.plus(ttl))
+                .set("updatedAt", now);
+        try {
+            SchedulerLease lease = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), SchedulerLease.class);
+            return lease != null && node.getNodeId().equals(lease.getOwner());
+        } catch (DuplicateKeyException ex) {
+            // The upsert lost against a live lease held by another node
+            log.debug("Lease '{}' is held by another node", job);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.thirikkale.scheduledrideservice.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Identity of this replica and its share of the dispatch work.
+ *
+ * Replicas registered under the same service name are ordered by instance id, and a ride or
+ * group belongs to the replica at hash(id) mod count. Ownership only decides who fires first;
+ * the conditional dispatch claim is what keeps a ride from being published twice, so a stale
+ * view of the membership costs at most a short delay.
+ */
+@Component
+@Slf4j
+public class SchedulerNode {
+
+    private final ObjectProvider<DiscoveryClient> discoveryClient;
+    private final String serviceName;
+    private final String nodeId;
+
+    private volatile int partitionIndex = 0;
+    private volatile int partitionCount = 1;
+
+    public SchedulerNode(ObjectProvider<DiscoveryClient> discoveryClient,
+                         ObjectProvider<Registration> registration,
+                         @Value("${spring.application.name}") String serviceName) {
+        this.discoveryClient = discoveryClient;
+        this.serviceName = serviceName;
+        Registration self = registration.getIfAvailable();
+        this.nodeId = self != null && self.getInstanceId() != null
+                ? self.getInstanceId()
+                : serviceName + ":" + UUID.randomUUID();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    /**
+     * Whether this replica is the first to dispatch the given ride or group id.
+     */
+    public boolean owns(String id) {
+        int count = partitionCount;
+        return count <= 1 || Math.floorMod(id.hashCode(), count) == partitionIndex;
+    }
+
+    /**
+     * Re-reads the replica list from discovery. Until this node shows up in the registry it
+     * treats itself as the only replica.
+     *
+     * @return whether this node's partition changed
+     */
+    public boolean refreshPartitions() {
+        DiscoveryClient client = discoveryClient.getIfAvailable();
+        if (client == null) return false;
+        try {
+            List<String> ids = client.getInstances(serviceName).stream()
+                    .map(ServiceInstance::getInstanceId)
+                    .sorted()
+                    .toList();
+            int index = ids.indexOf(nodeId);
+            int count = index < 0 ? 1 : ids.size();
+            boolean changed = count != partitionCount || Math.max(index, 0) != partitionIndex;
+            if (changed) {
+                log.info("Dispatch partition for {} is now {} of {}", nodeId, Math.max(index, 0), count);
+            }
+            partitionIndex = Math.max(index, 0);
+            partitionCount = count;
+            return changed;
+        } catch (RuntimeException ex) {
+            log.warn("Could not read replicas from discovery, keeping partition {} of {}: {}",
+                    partitionIndex, partitionCount, ex.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.thirikkale.scheduledrideservice.service;
+
+import com.thirikkale.scheduledrideservice.dto.NearbyUserResponseDto;
+import com.thirikkale.scheduledrideservice.dto.RouteMatchRequestDto;
+import com.thirikkale.scheduledrideservice.dto.RouteMatchResponseDto;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive-driver variants of the proximity searches in {@link ScheduledRideService}, with the
+ * same results and ordering, emitted as MongoDB returns them.
+ */
+public interface ReactiveProximityService {
+    Flux<NearbyUserResponseDto> findNearbyUsers(Double latitude, Double longitude, Double radiusKm);
+    Flux<NearbyUserResponseDto> findNearbyUsersByDropoff(Double latitude, Double longitude, Double radiusKm);
+    Flux<RouteMatchResponseDto> findRouteMatches(RouteMatchRequestDto request);
+}
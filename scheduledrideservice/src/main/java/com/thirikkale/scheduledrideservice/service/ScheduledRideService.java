@@ -4,19 +4,35 @@ import com.thirikkale.scheduledrideservice.dto.NearbyUserResponseDto;
 import com.thirikkale.scheduledrideservice.dto.RouteMatchRequestDto;
 import com.thirikkale.scheduledrideservice.dto.RouteMatchResponseDto;
 import com.thirikkale.scheduledrideservice.dto.ScheduledRideCreateRequestDto;
+import com.thirikkale.scheduledrideservice.dto.ScheduledRidePageDto;
 import com.thirikkale.scheduledrideservice.dto.ScheduledRideResponseDto;
+import com.thirikkale.scheduledrideservice.dto.ScheduledRideSliceDto;
 import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ScheduledRideService {
     ScheduledRideResponseDto scheduleRide(ScheduledRideCreateRequestDto request);
     ScheduledRideResponseDto cancelRide(String id);
     List<String> dispatchDueSoloRides(Instant dispatchBefore);
-    List<ScheduledRideResponseDto> getAllRides();
+    List<String> sweepOverdueSoloRides();
+    List<String> dispatchSoloRides(Collection<String> rideIds);
+    ScheduledRideResponseDto getRide(String rideId);
+    String getRideVersion(String rideId);
+    String getRiderRidesVersion(String riderId, Boolean upcoming, List<ScheduledRideStatus> statuses);
+    String getDriverRidesVersion(String driverId, Boolean upcoming, List<ScheduledRideStatus> statuses);
+    ScheduledRidePageDto getRidesPage(List<ScheduledRideStatus> statuses, Instant from, Instant to,
+                                      String cursor, Integer limit);
+    Stream<ScheduledRideResponseDto> streamRides(List<ScheduledRideStatus> statuses, Instant from, Instant to);
     List<ScheduledRideResponseDto> getRidesByRiderId(String riderId);
     List<ScheduledRideResponseDto> getRidesByDriverId(String driverId);
+    ScheduledRideSliceDto getRiderRides(String riderId, boolean upcoming, List<ScheduledRideStatus> statuses,
+                                        int page, Integer size);
+    ScheduledRideSliceDto getDriverRides(String driverId, boolean upcoming, List<ScheduledRideStatus> statuses,
+                                         int page, Integer size);
     ScheduledRideResponseDto assignDriverToRide(String rideId, String driverId);
     ScheduledRideResponseDto removeDriverFromRide(String rideId);
     List<NearbyUserResponseDto> findNearbyUsers(Double latitude, Double longitude, Double radiusKm);
@@ -1,8 +1,11 @@
 package com.thirikkale.scheduledrideservice.service;
 
 import java.time.Instant;
+import java.util.Collection;
 
 public interface SharedRideMatchingService {
     void buildOrUpdateGroups(Instant windowStart, Instant windowEnd);
     void dispatchDueGroups(Instant dispatchBefore);
+    void sweepOverdueGroups();
+    void dispatchGroups(Collection<String> groupIds);
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.thirikkale.scheduledrideservice.service.impl;
+
+import com.thirikkale.scheduledrideservice.dto.NearbyUserResponseDto;
+import com.thirikkale.scheduledrideservice.dto.RouteMatchRequestDto;
+import com.thirikkale.scheduledrideservice.dto.RouteMatchResponseDto;
+import com.thirikkale.scheduledrideservice.mapper.ScheduledRideMapper;
+import com.thirikkale.scheduledrideservice.model.NearbyRideResult;
+import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
+import com.thirikkale.scheduledrideservice.service.ReactiveProximityService;
+import com.thirikkale.scheduledrideservice.util.GeoKernel;
+import com.thirikkale.scheduledrideservice.util.RouteMatchSelector;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "api.reactive.enabled", havingValue = "true")
+public class ReactiveProximityServiceImpl implements ReactiveProximityService {
+
+    private static final String COLLECTION = "scheduled_rides";
+
+    private static final List<String> ACTIVE_STATUSES = List.of(
+            ScheduledRideStatus.SCHEDULED.name(), ScheduledRideStatus.GROUPING.name());
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Value("${api.rides.routeMatch.maxLimit:200}") private int maxRouteMatchLimit;
+
+    @Override
+    public Flux<NearbyUserResponseDto> findNearbyUsers(Double latitude, Double longitude, Double radiusKm) {
+        validate(latitude, longitude, radiusKm);
+        return geoNear("pickupLocation", latitude, longitude, radiusKm, new Document())
+                .map(result -> ScheduledRideMapper.toNearbyDto(result.getRide(), result.getDistanceMeters() / 1000.0));
+    }
+
+    @Override
+    public Flux<NearbyUserResponseDto> findNearbyUsersByDropoff(Double latitude, Double longitude, Double radiusKm) {
+        validate(latitude, longitude, radiusKm);
+        return geoNear("dropoffLocation", latitude, longitude, radiusKm, new Document())
+                .map(result -> ScheduledRideMapper.toNearbyDto(result.getRide(), result.getDistanceMeters() / 1000.0));
+    }
+
+    @Override
+    public Flux<RouteMatchResponseDto> findRouteMatches(RouteMatchRequestDto request) {
+        // Built here so an invalid request fails before subscribing; each subscription ranks into its own copy
+        RouteMatchSelector query = RouteMatchRequests.selector(request, maxRouteMatchLimit);
+        GeoKernel.Circle dropoffArea = query.dropoffArea();
+
+        // The dropoff radius is applied inside $geoNear, so only rides matching both ends leave MongoDB
+        Document dropoffWithin = new Document("dropoffLocation", new Document("$geoWithin",
+                new Document("$centerSphere", List.of(
+                        List.of(dropoffArea.longitude(), dropoffArea.latitude()),
+                        dropoffArea.radiusKm() / GeoKernel.EARTH_RADIUS_KM))));
+        return Flux.defer(() -> {
+            RouteMatchSelector selector = query.emptyCopy();
+            // Rides arrive nearest pickup first; the cursor is cancelled once the pickup term alone loses
+            return geoNear("pickupLocation", request.getPickupLatitude(), request.getPickupLongitude(),
+                    query.pickupArea().radiusKm(), dropoffWithin)
+                    .takeWhile(result -> selector.canBeat(result.getDistanceMeters() / 1000.0, 0))
+                    .doOnNext(result -> selector.offerByPickup(result.getRide(), result.getDistanceMeters() / 1000.0))
+                    .thenMany(Flux.defer(() -> Flux.fromIterable(selector.results())));
+        }).map(ScheduledRideMapper::toRouteMatchDto);
+    }
+
+    private Flux<NearbyRideResult> geoNear(String key, double latitude, double longitude, double radiusKm,
+                                           Document extraQuery) {
+        Document query = new Document("status", new Document("$in", ACTIVE_STATUSES));
+        query.putAll(extraQuery);
+        Document geoNear = new Document("$geoNear", new Document()
+                .append("near", new Document("type", "Point").append("coordinates", List.of(longitude, latitude)))
+                .append("key", key)
+                .append("distanceField", "distanceMeters")
+                .append("maxDistance", radiusKm * 1000.0)
+                .append("spherical", true)
+                .append("query", query));
+        AggregationOperation project = context -> new Document("$project",
+                new Document("_id", 0).append("ride", "$$ROOT").append("distanceMeters", 1));
+        return reactiveMongoTemplate.aggregate(
+                Aggregation.newAggregation(context -> geoNear, project), COLLECTION, NearbyRideResult.class);
+    }
+
+    private static void validate(Double latitude, Double longitude, Double radiusKm) {
+        if (latitude == null || longitude == null) {
+            throw new RuntimeException("Latitude and longitude are required");
+        }
+        if (radiusKm == null || radiusKm <= 0) {
+            throw new RuntimeException("Radius must be a positive number");
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.thirikkale.scheduledrideservice.service.impl;
+
+import com.thirikkale.scheduledrideservice.dto.RouteMatchRequestDto;
+import com.thirikkale.scheduledrideservice.util.GeoKernel;
+import com.thirikkale.scheduledrideservice.util.RouteMatchSelector;
+
+/**
+ * Validation and defaults for route match requests, shared by the blocking and reactive services.
+ */
+final class RouteMatchRequests {
+
+    private RouteMatchRequests() {
+    }
+
+    static RouteMatchSelector selector(RouteMatchRequestDto request, int maxLimit) {
+        if (request.getPickupLatitude() == null || request.getPickupLongitude() == null) {
+            throw new RuntimeException("Pickup latitude and longitude are required");
+        }
+        if (request.getDropoffLatitude() == null || request.getDropoffLongitude() == null) {
+            throw new RuntimeException("Dropoff latitude and longitude are required");
+        }
+
+        double pickupRadiusKm = request.getPickupRadiusKm() != null ? request.getPickupRadiusKm() : 5.0;
+        double dropoffRadiusKm = request.getDropoffRadiusKm() != null ? request.getDropoffRadiusKm() : 5.0;
+        if (pickupRadiusKm <= 0 || dropoffRadiusKm <= 0) {
+            throw new RuntimeException("Radius values must be positive numbers");
+        }
+
+        double pickupWeight = request.getPickupWeight() != null ? request.getPickupWeight() : 1.0;
+        double dropoffWeight = request.getDropoffWeight() != null ? request.getDropoffWeight() : 1.0;
+        if (!(pickupWeight >= 0) || !(dropoffWeight >= 0) || Double.isInfinite(pickupWeight + dropoffWeight)) {
+            throw new RuntimeException("Scoring weights must be finite non-negative numbers");
+        }
+        if (pickupWeight == 0 && dropoffWeight == 0) {
+            throw new RuntimeException("At least one scoring weight must be positive");
+        }
+
+        if (request.getLimit() != null && request.getLimit() <= 0) {
+            throw new RuntimeException("Limit must be a positive number");
+        }
+        // Truncation is opt-in; without a limit every match is returned, ranked
+        int limit = request.getLimit() == null ? Integer.MAX_VALUE : Math.min(request.getLimit(), maxLimit);
+
+        return new RouteMatchSelector(
+                GeoKernel.circle(request.getPickupLatitude(), request.getPickupLongitude(), pickupRadiusKm),
+                GeoKernel.circle(request.getDropoffLatitude(), request.getDropoffLongitude(), dropoffRadiusKm),
+                pickupWeight, dropoffWeight, limit);
+    }
+}
@@ -4,47 +4,157 @@ import com.thirikkale.scheduledrideservice.dto.NearbyUserResponseDto;
 import com.thirikkale.scheduledrideservice.dto.RouteMatchRequestDto;
 import com.thirikkale.scheduledrideservice.dto.RouteMatchResponseDto;
 import com.thirikkale.scheduledrideservice.dto.ScheduledRideCreateRequestDto;
+import com.thirikkale.scheduledrideservice.dto.ScheduledRidePageDto;
 import com.thirikkale.scheduledrideservice.dto.ScheduledRideResponseDto;
+import com.thirikkale.scheduledrideservice.dto.ScheduledRideSliceDto;
+import com.thirikkale.scheduledrideservice.event.RideEvents;
+import com.thirikkale.scheduledrideservice.cache.RideReadCache;
+import com.thirikkale.scheduledrideservice.index.ActiveRideIndex;
 import com.thirikkale.scheduledrideservice.mapper.ScheduledRideMapper;
+import com.thirikkale.scheduledrideservice.model.NearbyRideResult;
+import com.thirikkale.scheduledrideservice.model.RouteMatchResult;
 import com.thirikkale.scheduledrideservice.model.ScheduledRide;
 import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
 import com.thirikkale.scheduledrideservice.repository.ScheduledRideRepository;
 import com.thirikkale.scheduledrideservice.service.ScheduledRideService;
-import com.thirikkale.scheduledrideservice.messaging.RideRequestPublisher;
-import com.thirikkale.scheduledrideservice.util.DistanceCalculator;
+import com.thirikkale.scheduledrideservice.messaging.RideOutbox;
+import com.thirikkale.scheduledrideservice.util.RideCursor;
+import com.thirikkale.scheduledrideservice.util.RouteMatchSelector;
+import com.thirikkale.scheduledrideservice.model.DispatchWatermark;
+import com.thirikkale.scheduledrideservice.scheduler.DispatchMetrics;
+import com.thirikkale.scheduledrideservice.scheduler.DispatchWatermarks;
+import com.thirikkale.scheduledrideservice.scheduler.DispatchWheel;
+import com.thirikkale.scheduledrideservice.scheduler.SchedulerNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 @Transactional
 public class ScheduledRideServiceImpl implements ScheduledRideService {
     @Override
     public List<ScheduledRideResponseDto> getRidesByDriverId(String driverId) {
-        List<ScheduledRide> rides = repo.findByDriverId(driverId);
+        List<ScheduledRide> rides = rideReadCache.ridesOfDriver(driverId);
         return rides.stream()
                 .map(ScheduledRideMapper::toDto)
                 .toList();
     }
 
+    @Override
+    public ScheduledRideSliceDto getRiderRides(String riderId, boolean upcoming, List<ScheduledRideStatus> statuses,
+                                               int page, Integer size) {
+        PageRequest request = historyPage(upcoming, page, size);
+        Instant now = Instant.now();
+        Slice<ScheduledRide> rides = upcoming
+                ? repo.findRiderRidesFrom(riderId, orAllStatuses(statuses), now, request)
+                : repo.findRiderRidesBefore(riderId, orAllStatuses(statuses), now, request);
+        return toSliceDto(rides);
+    }
+
+    @Override
+    public ScheduledRideSliceDto getDriverRides(String driverId, boolean upcoming, List<ScheduledRideStatus> statuses,
+                                                int page, Integer size) {
+        PageRequest request = historyPage(upcoming, page, size);
+        Instant now = Instant.now();
+        Slice<ScheduledRide> rides = upcoming
+                ? repo.findDriverRidesFrom(driverId, orAllStatuses(statuses), now, request)
+                : repo.findDriverRidesBefore(driverId, orAllStatuses(statuses), now, request);
+        return toSliceDto(rides);
+    }
+
+    // Upcoming rides soonest first, past rides most recent first
+    private PageRequest historyPage(boolean upcoming, int page, Integer size) {
+        if (page < 0) {
+            throw new RuntimeException("Page must not be negative");
+        }
+        if (size != null && size <= 0) {
+            throw new RuntimeException("Size must be a positive number");
+        }
+        Sort.Direction direction = upcoming ? Sort.Direction.ASC : Sort.Direction.DESC;
+        int pageSize = size == null ? defaultPageSize : Math.min(size, maxPageSize);
+        return PageRequest.of(page, pageSize, Sort.by(direction, "scheduledTime"));
+    }
+
+    private static List<ScheduledRideStatus> orAllStatuses(List<ScheduledRideStatus> statuses) {
+        return statuses == null || statuses.isEmpty() ? Arrays.asList(ScheduledRideStatus.values()) : statuses;
+    }
+
+    private static ScheduledRideSliceDto toSliceDto(Slice<ScheduledRide> rides) {
+        return ScheduledRideSliceDto.builder()
+                .items(rides.getContent().stream().map(ScheduledRideMapper::toDto).toList())
+                .page(rides.getNumber())
+                .size(rides.getSize())
+                .hasNext(rides.hasNext())
+                .build();
+    }
+
+    // Only rides that can still be joined or picked up are exposed to proximity searches
+    private static final List<String> ACTIVE_STATUSES = List.of(
+            ScheduledRideStatus.SCHEDULED.name(), ScheduledRideStatus.GROUPING.name());
+
+    // A driver can only be assigned or removed before the ride is dispatched
+    private static final List<ScheduledRideStatus> DRIVER_EDITABLE_STATUSES = List.of(
+            ScheduledRideStatus.SCHEDULED, ScheduledRideStatus.GROUPING);
+
     private final ScheduledRideRepository repo;
-    private final RideRequestPublisher publisher;
+    private final RideOutbox rideOutbox;
+    private final ActiveRideIndex activeRideIndex;
+    private final DispatchWatermarks dispatchWatermarks;
+    private final DispatchWheel dispatchWheel;
+    private final DispatchMetrics dispatchMetrics;
+    private final SchedulerNode schedulerNode;
+    private final MeterRegistry meterRegistry;
+    private final RideReadCache rideReadCache;
+    private final RideEvents rideEvents;
+
+    @Value("${api.rides.page.defaultSize:50}") private int defaultPageSize;
+    @Value("${api.rides.page.maxSize:500}") private int maxPageSize;
+    @Value("${api.rides.routeMatch.maxLimit:200}") private int maxRouteMatchLimit;
+
+    private Counter overdueSoloCounter;
+
+    @PostConstruct
+    void registerMeters() {
+        overdueSoloCounter = Counter.builder("scheduled_rides.dispatch.overdue")
+                .description("Rides dispatched by the straggler sweeper instead of their regular slice")
+                .tag("type", DispatchMetrics.SOLO)
+                .register(meterRegistry);
+    }
 
     @Override
     public ScheduledRideResponseDto scheduleRide(ScheduledRideCreateRequestDto req) {
         // Use mapper to convert DTO to entity with GeoJSON coordinates
-        ScheduledRide ride = ScheduledRideMapper.toEntity(req);
-        ride = repo.save(ride);
-        
-        // Publish solo ride request if not shared
-        if (!ride.getIsSharedRide()) {
-            publisher.publishSoloRideRequest(ride);
-        }
+        ScheduledRide entity = ScheduledRideMapper.toEntity(req);
+        // The solo ride request is queued in the outbox with the ride instead of published inline
+        ScheduledRide ride = rideOutbox.inTransaction(() -> {
+            ScheduledRide saved = repo.save(entity);
+            if (!saved.getIsSharedRide()) {
+                rideOutbox.enqueue(List.of(rideOutbox.soloBooked(saved)));
+            }
+            return saved;
+        });
+        activeRideIndex.apply(ride);
+        dispatchWheel.track(ride);
+        rideEvents.rideChanged(ride);
         
         // Use mapper to convert entity back to DTO
         return ScheduledRideMapper.toDto(ride);
@@ -52,103 +162,174 @@ public class ScheduledRideServiceImpl implements ScheduledRideService {
 
     @Override
     public ScheduledRideResponseDto cancelRide(String id) {
-        ScheduledRide ride = repo.findById(id)
+        ScheduledRide ride = repo.updateStatus(id, ScheduledRideStatus.CANCELLED, Instant.now())
             .orElseThrow(() -> new RuntimeException("No ride found with id: " + id));
-        ride.setStatus(ScheduledRideStatus.CANCELLED);
-        ride.setUpdatedAt(Instant.now());
-        ride = repo.save(ride);
+        activeRideIndex.apply(ride);
+        dispatchWheel.track(ride);
+        rideEvents.rideChanged(ride);
         return ScheduledRideMapper.toDto(ride);
     }
 
     @Override
     public List<String> dispatchDueSoloRides(Instant dispatchBefore) {
-        List<ScheduledRide> rides = repo.findByStatusAndScheduledTimeBefore(ScheduledRideStatus.SCHEDULED, dispatchBefore);
-        rides.forEach(r -> {
-            publisher.publishSoloRideRequest(r);
-            r.setStatus(ScheduledRideStatus.DISPATCHED);
-            r.setUpdatedAt(Instant.now());
-        });
-        repo.saveAll(rides);
-    // Return String ids directly
-    return rides.stream().map(ScheduledRide::getId).toList();
+        // Only the slice scheduled since the last tick is scanned, not the whole history
+        Instant after = dispatchWatermarks.sliceStart(DispatchWatermark.SOLO);
+        List<ScheduledRide> rides = repo.findDueSlice(ScheduledRideStatus.SCHEDULED, false, after, dispatchBefore);
+        List<String> ids = dispatchSolo(rides);
+        dispatchWatermarks.advance(DispatchWatermark.SOLO, dispatchBefore);
+        return ids;
     }
 
     @Override
-    public List<ScheduledRideResponseDto> getAllRides() {
-        List<ScheduledRide> rides = repo.findAll();
-        return rides.stream()
+    public List<String> sweepOverdueSoloRides() {
+        List<ScheduledRide> stragglers = repo.findDueSlice(ScheduledRideStatus.SCHEDULED, false,
+                dispatchWatermarks.sweepStart(), dispatchWatermarks.sliceStart(DispatchWatermark.SOLO));
+        if (!stragglers.isEmpty()) {
+            log.warn("Dispatching {} overdue solo rides missed by the regular dispatch slice", stragglers.size());
+            overdueSoloCounter.increment(stragglers.size());
+        }
+        return dispatchSolo(stragglers);
+    }
+
+    @Override
+    public List<String> dispatchSoloRides(Collection<String> rideIds) {
+        // Wheel entries can be stale, so only rides still waiting in Mongo go out
+        List<ScheduledRide> rides = new ArrayList<>();
+        for (ScheduledRide r : repo.findAllById(rideIds)) {
+            if (r.getStatus() == ScheduledRideStatus.SCHEDULED && !Boolean.TRUE.equals(r.getIsSharedRide())) {
+                rides.add(r);
+            }
+        }
+        return dispatchSolo(rides);
+    }
+
+    private List<String> dispatchSolo(List<ScheduledRide> rides) {
+        if (rides.isEmpty()) return List.of();
+        List<String> ids = rides.stream().map(ScheduledRide::getId).toList();
+        String claimId = UUID.randomUUID().toString();
+        List<ScheduledRide> dispatched;
+        try {
+            // Status change and outbox rows commit together; the relay publishes them afterwards
+            dispatched = rideOutbox.inTransaction(() -> {
+                // Only rides this node moves out of SCHEDULED are dispatched, so racing replicas split them
+                if (repo.claimForDispatch(ids, schedulerNode.getNodeId(), claimId, Instant.now()) == 0) {
+                    return List.<ScheduledRide>of();
+                }
+                List<ScheduledRide> claimed = repo.findClaimed(ids, claimId);
+                rideOutbox.enqueue(claimed.stream().map(rideOutbox::soloDispatch).toList());
+                return claimed;
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Dispatch of {} solo rides rolled back, retrying later: {}", ids.size(), ex.getMessage());
+            dispatchWheel.retryRides(ids);
+            return List.of();
+        }
+        dispatchMetrics.dispatched(DispatchMetrics.SOLO, dispatched, Instant.now());
+        activeRideIndex.applyAll(dispatched);
+        dispatchWheel.trackAll(dispatched);
+        rideEvents.ridesChanged(dispatched, List.of());
+        // Return String ids directly
+        return dispatched.stream().map(ScheduledRide::getId).toList();
+    }
+
+    @Override
+    public ScheduledRideResponseDto getRide(String rideId) {
+        return rideReadCache.ride(rideId)
                 .map(ScheduledRideMapper::toDto)
-                .toList();
+                .orElseThrow(() -> new RuntimeException("No ride found with id: " + rideId));
     }
 
     @Override
-    public List<ScheduledRideResponseDto> getRidesByRiderId(String riderId) {
-        List<ScheduledRide> rides = repo.findByRiderId(riderId);
-    return rides.stream().map(r -> ScheduledRideResponseDto.builder()
-        .id(r.getId())
-        .riderId(r.getRiderId())
-        .pickupAddress(r.getPickupAddress())
-        .pickupLatitude(r.getPickupLatitude())
-        .pickupLongitude(r.getPickupLongitude())
-        .dropoffAddress(r.getDropoffAddress())
-        .dropoffLatitude(r.getDropoffLatitude())
-        .dropoffLongitude(r.getDropoffLongitude())
-        .passengers(r.getPassengers())
-            .isSharedRide(r.getIsSharedRide())
-        .scheduledTime(r.getScheduledTime())
-        .status(r.getStatus().name())
-        .sharedGroupId(r.getSharedGroupId())
-        .rideType(r.getRideType())
-        .vehicleType(r.getVehicleType())
-        .distanceKm(r.getDistanceKm())
-        .waitingTimeMin(r.getWaitingTimeMin())
-            .isWomenOnly(r.getIsWomenOnly())
-            .driverId(r.getDriverId())
-        .maxFare(r.getMaxFare())
-        .specialRequests(r.getSpecialRequests())
-        .build()).toList();
+    public String getRideVersion(String rideId) {
+        return repo.findVersionById(rideId)
+                .map(r -> r.getId() + "-" + (r.getUpdatedAt() == null ? 0 : r.getUpdatedAt().toEpochMilli()))
+                .orElse(null);
     }
 
     @Override
-    public ScheduledRideResponseDto assignDriverToRide(String rideId, String driverId) {
-        ScheduledRide ride = repo.findById(rideId)
-                .orElseThrow(() -> new RuntimeException("Scheduled ride not found with id: " + rideId));
-        
-        // Only allow driver assignment for scheduled or grouping rides
-        if (ride.getStatus() != ScheduledRideStatus.SCHEDULED && ride.getStatus() != ScheduledRideStatus.GROUPING) {
-            throw new RuntimeException("Cannot assign driver to ride with status: " + ride.getStatus());
+    public String getRiderRidesVersion(String riderId, Boolean upcoming, List<ScheduledRideStatus> statuses) {
+        Instant now = Instant.now();
+        return repo.riderRidesVersion(riderId, statuses,
+                Boolean.TRUE.equals(upcoming) ? now : null, Boolean.FALSE.equals(upcoming) ? now : null).tag();
+    }
+
+    @Override
+    public String getDriverRidesVersion(String driverId, Boolean upcoming, List<ScheduledRideStatus> statuses) {
+        Instant now = Instant.now();
+        return repo.driverRidesVersion(driverId, statuses,
+                Boolean.TRUE.equals(upcoming) ? now : null, Boolean.FALSE.equals(upcoming) ? now : null).tag();
+    }
+
+    @Override
+    public ScheduledRidePageDto getRidesPage(List<ScheduledRideStatus> statuses, Instant from, Instant to,
+                                             String cursor, Integer limit) {
+        if (limit != null && limit <= 0) {
+            throw new RuntimeException("Limit must be a positive number");
         }
-        
-        // Check if driver is already assigned
-        if (ride.getDriverId() != null && !ride.getDriverId().isEmpty()) {
-            throw new RuntimeException("Driver already assigned to this ride. Current driver: " + ride.getDriverId());
+        int size = limit == null ? defaultPageSize : Math.min(limit, maxPageSize);
+        RideCursor after = cursor == null || cursor.isBlank() ? null : RideCursor.decode(cursor);
+        // One extra row tells whether another page exists without a count query
+        List<ScheduledRide> rides = repo.findPage(statuses, from, to, after, size + 1);
+        String nextCursor = null;
+        if (rides.size() > size) {
+            rides = rides.subList(0, size);
+            ScheduledRide last = rides.get(size - 1);
+            nextCursor = new RideCursor(last.getScheduledTime(), last.getId()).encode();
         }
-        
-        ride.setDriverId(driverId);
-        ride.setUpdatedAt(Instant.now());
-        ride = repo.save(ride);
+        return ScheduledRidePageDto.builder()
+                .items(rides.stream().map(ScheduledRideMapper::toDto).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    public Stream<ScheduledRideResponseDto> streamRides(List<ScheduledRideStatus> statuses, Instant from, Instant to) {
+        return repo.streamAll(statuses, from, to).map(ScheduledRideMapper::toDto);
+    }
+
+    @Override
+    public List<ScheduledRideResponseDto> getRidesByRiderId(String riderId) {
+        List<ScheduledRide> rides = rideReadCache.ridesOfRider(riderId);
+        return rides.stream()
+                .map(ScheduledRideMapper::toDto)
+                .toList();
+    }
+
+    @Override
+    public ScheduledRideResponseDto assignDriverToRide(String rideId, String driverId) {
+        // Conditional update, so of two concurrent assignments exactly one wins
+        ScheduledRide ride = repo.assignDriverIfUnassigned(rideId, driverId, DRIVER_EDITABLE_STATUSES, Instant.now())
+                .orElseThrow(() -> {
+                    // Re-read only to explain which precondition failed
+                    ScheduledRide current = repo.findById(rideId)
+                            .orElseThrow(() -> new RuntimeException("Scheduled ride not found with id: " + rideId));
+                    if (!DRIVER_EDITABLE_STATUSES.contains(current.getStatus())) {
+                        return new RuntimeException("Cannot assign driver to ride with status: " + current.getStatus());
+                    }
+                    return new RuntimeException("Driver already assigned to this ride. Current driver: " + current.getDriverId());
+                });
+        activeRideIndex.apply(ride);
+        rideEvents.rideChanged(ride);
         
         return ScheduledRideMapper.toDto(ride);
     }
 
     @Override
     public ScheduledRideResponseDto removeDriverFromRide(String rideId) {
-        ScheduledRide ride = repo.findById(rideId)
-                .orElseThrow(() -> new RuntimeException("Scheduled ride not found with id: " + rideId));
-        
-        // Only allow driver removal for scheduled or grouping rides
-        if (ride.getStatus() != ScheduledRideStatus.SCHEDULED && ride.getStatus() != ScheduledRideStatus.GROUPING) {
-            throw new RuntimeException("Cannot remove driver from ride with status: " + ride.getStatus());
-        }
-        
-        // Check if driver is assigned
-        if (ride.getDriverId() == null || ride.getDriverId().isEmpty()) {
-            throw new RuntimeException("No driver assigned to this ride");
-        }
-        
-        ride.setDriverId(null);
-        ride.setUpdatedAt(Instant.now());
-        ride = repo.save(ride);
+        Instant now = Instant.now();
+        ScheduledRide before = repo.removeDriverIfAssigned(rideId, DRIVER_EDITABLE_STATUSES, now)
+                .orElseThrow(() -> {
+                    ScheduledRide current = repo.findById(rideId)
+                            .orElseThrow(() -> new RuntimeException("Scheduled ride not found with id: " + rideId));
+                    if (!DRIVER_EDITABLE_STATUSES.contains(current.getStatus())) {
+                        return new RuntimeException("Cannot remove driver from ride with status: " + current.getStatus());
+                    }
+                    return new RuntimeException("No driver assigned to this ride");
+                });
+        // Only the driver and updatedAt changed, so the post-image is derived rather than re-read
+        ScheduledRide ride = before.toBuilder().driverId(null).updatedAt(now).build();
+        activeRideIndex.apply(ride);
+        rideEvents.ridesChanged(List.of(ride), List.of(before.getDriverId()));
         
         return ScheduledRideMapper.toDto(ride);
     }
@@ -163,50 +344,12 @@ public class ScheduledRideServiceImpl implements ScheduledRideService {
             throw new RuntimeException("Radius must be a positive number");
         }
         
-        // Get all scheduled rides
-        List<ScheduledRide> allRides = repo.findAll();
-        
-        // Filter rides by status (SCHEDULED or GROUPING only), coordinates, and distance
-        return allRides.stream()
-                .filter(ride -> ride.getStatus() == ScheduledRideStatus.SCHEDULED || 
-                               ride.getStatus() == ScheduledRideStatus.GROUPING)
-                .filter(ride -> ride.getPickupLatitude() != null && ride.getPickupLongitude() != null)
-                .map(ride -> {
-                    double distance = DistanceCalculator.calculateDistance(
-                            latitude, longitude,
-                            ride.getPickupLatitude(), ride.getPickupLongitude()
-                    );
-                    return new RideDistancePair(ride, distance);
-                })
-                .filter(pair -> pair.distance <= radiusKm)
-                .sorted((a, b) -> Double.compare(a.distance, b.distance))
-                .map(pair -> NearbyUserResponseDto.builder()
-                        .id(pair.ride.getId())
-                        .riderId(pair.ride.getRiderId())
-                        .pickupAddress(pair.ride.getPickupAddress())
-                        .pickupLatitude(pair.ride.getPickupLatitude())
-                        .pickupLongitude(pair.ride.getPickupLongitude())
-                        .dropoffAddress(pair.ride.getDropoffAddress())
-                        .dropoffLatitude(pair.ride.getDropoffLatitude())
-                        .dropoffLongitude(pair.ride.getDropoffLongitude())
-                        .distanceKm(Math.round(pair.distance * 100.0) / 100.0)
-                        .scheduledTime(pair.ride.getScheduledTime())
-                        .status(pair.ride.getStatus().name())
-                        .passengers(pair.ride.getPassengers())
-                        .isSharedRide(pair.ride.getIsSharedRide())
-                        .sharedGroupId(pair.ride.getSharedGroupId())
-                        .rideType(pair.ride.getRideType())
-                        .vehicleType(pair.ride.getVehicleType())
-                        .rideDistanceKm(pair.ride.getDistanceKm())
-                        .waitingTimeMin(pair.ride.getWaitingTimeMin())
-                        .isWomenOnly(pair.ride.getIsWomenOnly())
-                        .driverId(pair.ride.getDriverId())
-                        .maxFare(pair.ride.getMaxFare())
-                        .specialRequests(pair.ride.getSpecialRequests())
-                        .estimatedFare(pair.ride.getEstimatedFare())
-                        .estimatedDistanceKm(pair.ride.getEstimatedDistanceKm())
-                        .estimatedDurationMin(pair.ride.getEstimatedDurationMin())
-                        .build())
+        // Only rides inside the radius are fetched, already sorted by distance
+        List<NearbyRideResult> nearby = activeRideIndex.isReady()
+                ? activeRideIndex.findNearPickup(latitude, longitude, radiusKm)
+                : repo.findByPickupNear(latitude, longitude, radiusKm * 1000.0, ACTIVE_STATUSES);
+        return nearby.stream()
+                .map(result -> ScheduledRideMapper.toNearbyDto(result.getRide(), result.getDistanceMeters() / 1000.0))
                 .collect(Collectors.toList());
     }
     
@@ -220,148 +363,44 @@ public class ScheduledRideServiceImpl implements ScheduledRideService {
             throw new RuntimeException("Radius must be a positive number");
         }
         
-        // Get all scheduled rides
-        List<ScheduledRide> allRides = repo.findAll();
-        
-        // Filter rides by status (SCHEDULED or GROUPING only), dropoff coordinates, and distance
-        return allRides.stream()
-                .filter(ride -> ride.getStatus() == ScheduledRideStatus.SCHEDULED || 
-                               ride.getStatus() == ScheduledRideStatus.GROUPING)
-                .filter(ride -> ride.getDropoffLatitude() != null && ride.getDropoffLongitude() != null)
-                .map(ride -> {
-                    double distance = DistanceCalculator.calculateDistance(
-                            latitude, longitude,
-                            ride.getDropoffLatitude(), ride.getDropoffLongitude()
-                    );
-                    return new RideDistancePair(ride, distance);
-                })
-                .filter(pair -> pair.distance <= radiusKm)
-                .sorted((a, b) -> Double.compare(a.distance, b.distance))
-                .map(pair -> NearbyUserResponseDto.builder()
-                        .id(pair.ride.getId())
-                        .riderId(pair.ride.getRiderId())
-                        .pickupAddress(pair.ride.getPickupAddress())
-                        .pickupLatitude(pair.ride.getPickupLatitude())
-                        .pickupLongitude(pair.ride.getPickupLongitude())
-                        .dropoffAddress(pair.ride.getDropoffAddress())
-                        .dropoffLatitude(pair.ride.getDropoffLatitude())
-                        .dropoffLongitude(pair.ride.getDropoffLongitude())
-                        .distanceKm(Math.round(pair.distance * 100.0) / 100.0)
-                        .scheduledTime(pair.ride.getScheduledTime())
-                        .status(pair.ride.getStatus().name())
-                        .passengers(pair.ride.getPassengers())
-                        .isSharedRide(pair.ride.getIsSharedRide())
-                        .sharedGroupId(pair.ride.getSharedGroupId())
-                        .rideType(pair.ride.getRideType())
-                        .vehicleType(pair.ride.getVehicleType())
-                        .rideDistanceKm(pair.ride.getDistanceKm())
-                        .waitingTimeMin(pair.ride.getWaitingTimeMin())
-                        .isWomenOnly(pair.ride.getIsWomenOnly())
-                        .driverId(pair.ride.getDriverId())
-                        .maxFare(pair.ride.getMaxFare())
-                        .specialRequests(pair.ride.getSpecialRequests())
-                        .estimatedFare(pair.ride.getEstimatedFare())
-                        .estimatedDistanceKm(pair.ride.getEstimatedDistanceKm())
-                        .estimatedDurationMin(pair.ride.getEstimatedDurationMin())
-                        .build())
+        // Only rides inside the radius are fetched, already sorted by distance
+        List<NearbyRideResult> nearby = activeRideIndex.isReady()
+                ? activeRideIndex.findNearDropoff(latitude, longitude, radiusKm)
+                : repo.findByDropoffNear(latitude, longitude, radiusKm * 1000.0, ACTIVE_STATUSES);
+        return nearby.stream()
+                .map(result -> ScheduledRideMapper.toNearbyDto(result.getRide(), result.getDistanceMeters() / 1000.0))
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<RouteMatchResponseDto> findRouteMatches(RouteMatchRequestDto request) {
-        if (request.getPickupLatitude() == null || request.getPickupLongitude() == null) {
-            throw new RuntimeException("Pickup latitude and longitude are required");
+        RouteMatchSelector selector = RouteMatchRequests.selector(request, maxRouteMatchLimit);
+        List<RouteMatchResult> matches;
+        if (activeRideIndex.isReady()) {
+            matches = activeRideIndex.findRouteMatches(selector);
+        } else {
+            // $geoNear returns the pickup radius nearest first, so the scan ends once the pickup term alone loses
+            List<NearbyRideResult> pickupCandidates = repo.findByPickupNear(request.getPickupLatitude(),
+                    request.getPickupLongitude(), selector.pickupArea().radiusKm() * 1000.0, ACTIVE_STATUSES);
+            for (NearbyRideResult result : pickupCandidates) {
+                double pickupDistance = result.getDistanceMeters() / 1000.0;
+                if (!selector.canBeat(pickupDistance, 0)) break;
+                selector.offerByPickup(result.getRide(), pickupDistance);
+            }
+            matches = selector.results();
         }
-        
-        if (request.getDropoffLatitude() == null || request.getDropoffLongitude() == null) {
-            throw new RuntimeException("Dropoff latitude and longitude are required");
-        }
-        
-        Double pickupRadiusKm = request.getPickupRadiusKm() != null ? request.getPickupRadiusKm() : 5.0;
-        Double dropoffRadiusKm = request.getDropoffRadiusKm() != null ? request.getDropoffRadiusKm() : 5.0;
-        
-        if (pickupRadiusKm <= 0 || dropoffRadiusKm <= 0) {
-            throw new RuntimeException("Radius values must be positive numbers");
-        }
-        
-        // Get all scheduled rides
-        List<ScheduledRide> allRides = repo.findAll();
-        
-        // Filter rides by status and both pickup and dropoff distances
-        return allRides.stream()
-                .filter(ride -> ride.getStatus() == ScheduledRideStatus.SCHEDULED || 
-                               ride.getStatus() == ScheduledRideStatus.GROUPING)
-                .filter(ride -> ride.getPickupLatitude() != null && ride.getPickupLongitude() != null &&
-                               ride.getDropoffLatitude() != null && ride.getDropoffLongitude() != null)
-                .map(ride -> {
-                    double pickupDistance = DistanceCalculator.calculateDistance(
-                            request.getPickupLatitude(), request.getPickupLongitude(),
-                            ride.getPickupLatitude(), ride.getPickupLongitude()
-                    );
-                    double dropoffDistance = DistanceCalculator.calculateDistance(
-                            request.getDropoffLatitude(), request.getDropoffLongitude(),
-                            ride.getDropoffLatitude(), ride.getDropoffLongitude()
-                    );
-                    return new RouteDistancePair(ride, pickupDistance, dropoffDistance);
-                })
-                .filter(pair -> pair.pickupDistance <= pickupRadiusKm && pair.dropoffDistance <= dropoffRadiusKm)
-                .sorted((a, b) -> Double.compare(a.getTotalDistance(), b.getTotalDistance()))
-                .map(pair -> RouteMatchResponseDto.builder()
-                        .id(pair.ride.getId())
-                        .riderId(pair.ride.getRiderId())
-                        .pickupAddress(pair.ride.getPickupAddress())
-                        .pickupLatitude(pair.ride.getPickupLatitude())
-                        .pickupLongitude(pair.ride.getPickupLongitude())
-                        .pickupDistanceKm(Math.round(pair.pickupDistance * 100.0) / 100.0)
-                        .dropoffAddress(pair.ride.getDropoffAddress())
-                        .dropoffLatitude(pair.ride.getDropoffLatitude())
-                        .dropoffLongitude(pair.ride.getDropoffLongitude())
-                        .dropoffDistanceKm(Math.round(pair.dropoffDistance * 100.0) / 100.0)
-                        .totalDistanceKm(Math.round(pair.getTotalDistance() * 100.0) / 100.0)
-                        .scheduledTime(pair.ride.getScheduledTime())
-                        .status(pair.ride.getStatus().name())
-                        .passengers(pair.ride.getPassengers())
-                        .isSharedRide(pair.ride.getIsSharedRide())
-                        .build())
+        return matches.stream()
+                .map(ScheduledRideMapper::toRouteMatchDto)
                 .collect(Collectors.toList());
     }
 
-    // Helper class to hold ride and distance pair
-    private static class RideDistancePair {
-        final ScheduledRide ride;
-        final double distance;
-        
-        RideDistancePair(ScheduledRide ride, double distance) {
-            this.ride = ride;
-            this.distance = distance;
-        }
-    }
-    
-    // Helper class to hold ride with pickup and dropoff distances
-    private static class RouteDistancePair {
-        final ScheduledRide ride;
-        final double pickupDistance;
-        final double dropoffDistance;
-        
-        RouteDistancePair(ScheduledRide ride, double pickupDistance, double dropoffDistance) {
-            this.ride = ride;
-            this.pickupDistance = pickupDistance;
-            this.dropoffDistance = dropoffDistance;
-        }
-        
-        double getTotalDistance() {
-            return pickupDistance + dropoffDistance;
-        }
-    }
-    
     @Override
     public ScheduledRideResponseDto changeRideStatus(String rideId, ScheduledRideStatus newStatus) {
-        ScheduledRide ride = repo.findById(rideId)
+        ScheduledRide ride = repo.updateStatus(rideId, newStatus, Instant.now())
             .orElseThrow(() -> new RuntimeException("No ride found with id: " + rideId));
-        
-        ride.setStatus(newStatus);
-        ride.setUpdatedAt(Instant.now());
-        ride = repo.save(ride);
+        activeRideIndex.apply(ride);
+        dispatchWheel.track(ride);
+        rideEvents.rideChanged(ride);
         
         return ScheduledRideMapper.toDto(ride);
     }
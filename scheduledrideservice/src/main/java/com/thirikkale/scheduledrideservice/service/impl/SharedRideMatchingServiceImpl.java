@@ -1,127 +1,288 @@
 package com.thirikkale.scheduledrideservice.service.impl;
 
+import com.thirikkale.scheduledrideservice.event.RideEvents;
+import com.thirikkale.scheduledrideservice.index.ActiveRideIndex;
+import com.thirikkale.scheduledrideservice.model.OutboxMessage;
 import com.thirikkale.scheduledrideservice.model.ScheduledRide;
 import com.thirikkale.scheduledrideservice.model.ScheduledSharedRideGroup;
 import com.thirikkale.scheduledrideservice.model.ScheduledSharedRideMember;
 import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
 import com.thirikkale.scheduledrideservice.repository.*;
 import com.thirikkale.scheduledrideservice.service.SharedRideMatchingService;
-import com.thirikkale.scheduledrideservice.messaging.RideRequestPublisher;
+import com.thirikkale.scheduledrideservice.messaging.RideOutbox;
+import com.thirikkale.scheduledrideservice.matching.GreedyClusteringEngine;
+import com.thirikkale.scheduledrideservice.matching.MatchingProperties;
+import com.thirikkale.scheduledrideservice.matching.RideCluster;
+import com.thirikkale.scheduledrideservice.matching.RideClusteringEngine;
+import com.thirikkale.scheduledrideservice.matching.RoutePlan;
+import com.thirikkale.scheduledrideservice.model.DispatchWatermark;
+import com.thirikkale.scheduledrideservice.scheduler.DispatchMetrics;
+import com.thirikkale.scheduledrideservice.scheduler.DispatchWatermarks;
+import com.thirikkale.scheduledrideservice.scheduler.DispatchWheel;
+import com.thirikkale.scheduledrideservice.scheduler.SchedulerNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
-import static java.lang.Math.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 @Transactional
 public class SharedRideMatchingServiceImpl implements SharedRideMatchingService {
 
     private final ScheduledRideRepository rideRepo;
     private final ScheduledSharedRideGroupRepository groupRepo;
     private final ScheduledSharedRideMemberRepository memberRepo;
-    private final RideRequestPublisher publisher;
+    private final RideOutbox rideOutbox;
+    private final ActiveRideIndex activeRideIndex;
 
-    @Value("${scheduler.matching.timeWindowMinutes:10}") private int timeWindowMinutes;
-    @Value("${scheduler.matching.pickupRadiusMeters:800}") private int pickupRadiusMeters;
-    @Value("${scheduler.matching.maxGroupSize:3}") private int maxGroupSize;
-    @Value("${scheduler.matching.maxDetourMinutes:8}") private int maxDetourMinutes;
+    private final MatchingProperties matchingProperties;
+    private final List<RideClusteringEngine> clusteringEngines;
+    private final GreedyClusteringEngine greedyClusteringEngine;
+
+    private final DispatchWatermarks dispatchWatermarks;
+    private final DispatchWheel dispatchWheel;
+    private final DispatchMetrics dispatchMetrics;
+    private final SchedulerNode schedulerNode;
+    private final MeterRegistry meterRegistry;
+    private final RideEvents rideEvents;
+
+    @Value("${scheduler.matching.engine:grid}") private String engineName;
+    @Value("${scheduler.matching.compareWithReference:false}") private boolean compareWithReference;
+
+    private Counter overdueSharedCounter;
+    private Timer matchingTimer;
+    private DistributionSummary candidatesSummary;
+    private DistributionSummary groupsSummary;
+    private final AtomicInteger lastCandidates = new AtomicInteger();
+
+    @PostConstruct
+    void registerMeters() {
+        overdueSharedCounter = Counter.builder("scheduled_rides.dispatch.overdue")
+                .description("Rides dispatched by the straggler sweeper instead of their regular slice")
+                .tag("type", DispatchMetrics.SHARED)
+                .register(meterRegistry);
+        matchingTimer = Timer.builder("scheduled_rides.matching.duration")
+                .description("Time of one buildOrUpdateGroups pass, clustering and group writes included")
+                .tag("type", DispatchMetrics.SHARED)
+                .tag("engine", engineName.toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+        candidatesSummary = DistributionSummary.builder("scheduled_rides.matching.candidates")
+                .description("GROUPING rides considered per matching pass")
+                .baseUnit("rides")
+                .tag("type", DispatchMetrics.SHARED)
+                .register(meterRegistry);
+        groupsSummary = DistributionSummary.builder("scheduled_rides.matching.groups")
+                .description("Groups formed per matching pass")
+                .baseUnit("groups")
+                .tag("type", DispatchMetrics.SHARED)
+                .register(meterRegistry);
+        Gauge.builder("scheduled_rides.matching.last_candidates", lastCandidates, AtomicInteger::get)
+                .description("GROUPING rides considered by the most recent matching pass")
+                .tag("type", DispatchMetrics.SHARED)
+                .register(meterRegistry);
+    }
 
     @Override
     public void buildOrUpdateGroups(Instant windowStart, Instant windowEnd) {
+        matchingTimer.record(() -> matchWindow(windowStart, windowEnd));
+    }
+
+    private void matchWindow(Instant windowStart, Instant windowEnd) {
         Instant now = Instant.now();
-    java.util.List<ScheduledRide> candidates = rideRepo.findByIsSharedRideTrueAndStatusAndScheduledTimeBetween(
-                ScheduledRideStatus.GROUPING, windowStart, windowEnd);
-
-        // Simple greedy clustering by time window and pickup proximity
-        candidates.sort(java.util.Comparator.comparing(ScheduledRide::getScheduledTime));
-        for (ScheduledRide r : candidates) {
-            if (r.getSharedGroupId() != null) continue;
-
-            // find nearby, close-time rides
-            java.util.List<ScheduledRide> cluster = new java.util.ArrayList<>();
-            cluster.add(r);
-            for (ScheduledRide other : candidates) {
-                if (other == r || other.getSharedGroupId() != null) continue;
-                if (abs(minutesBetween(r.getScheduledTime(), other.getScheduledTime())) <= timeWindowMinutes
-                        && distanceMeters(r.getPickupLatitude(), r.getPickupLongitude(),
-                                          other.getPickupLatitude(), other.getPickupLongitude()) <= pickupRadiusMeters) {
-                    cluster.add(other);
-                }
-                if (cluster.size() >= maxGroupSize) break;
-            }
+    java.util.List<ScheduledRide> candidates = activeRideIndex.isReady()
+                ? activeRideIndex.findSharedInWindow(ScheduledRideStatus.GROUPING, windowStart, windowEnd)
+                : rideRepo.findByIsSharedRideTrueAndStatusAndScheduledTimeBetween(
+                        ScheduledRideStatus.GROUPING, windowStart, windowEnd);
 
-            if (cluster.size() >= 2) {
-                double[] centroid = centroid(cluster);
-                ScheduledSharedRideGroup group = ScheduledSharedRideGroup.builder()
-                        .scheduledWindowStart(r.getScheduledTime().minus(timeWindowMinutes, ChronoUnit.MINUTES))
-                        .scheduledWindowEnd(r.getScheduledTime().plus(timeWindowMinutes, ChronoUnit.MINUTES))
-                        .centroidPickupLat(centroid[0])
-                        .centroidPickupLng(centroid[1])
-                        .maxGroupSize(maxGroupSize)
-                        .currentSize(cluster.size())
-                        .status(ScheduledRideStatus.SCHEDULED)
-                        .createdAt(now)
-                        .updatedAt(now)
-                        .build();
-                group = groupRepo.save(group);
-
-                for (ScheduledRide m : cluster) {
-                    m.setSharedGroupId(group.getId()); // group id is now String
-                    m.setStatus(ScheduledRideStatus.SCHEDULED);
-                    m.setUpdatedAt(now);
-                    rideRepo.save(m);
-                    memberRepo.save(ScheduledSharedRideMember.builder()
-                            .groupId(group.getId()).rideId(m.getId()).build()); // ids are String
-                }
+        List<RideCluster> clusters = selectEngine().cluster(candidates);
+        candidatesSummary.record(candidates.size());
+        groupsSummary.record(clusters.size());
+        lastCandidates.set(candidates.size());
+        if (compareWithReference && !GreedyClusteringEngine.NAME.equals(engineName)) {
+            compareWithReference(candidates, clusters);
+        }
+
+        int timeWindowMinutes = matchingProperties.getTimeWindowMinutes();
+        List<FormedGroup> formed = new ArrayList<>(clusters.size());
+        for (RideCluster rideCluster : clusters) {
+            List<ScheduledRide> cluster = rideCluster.getRides();
+            RoutePlan plan = rideCluster.getRoutePlan();
+            ScheduledRide r = cluster.get(0);
+            double[] centroid = centroid(cluster);
+            ScheduledSharedRideGroup group = ScheduledSharedRideGroup.builder()
+                    .scheduledWindowStart(r.getScheduledTime().minus(timeWindowMinutes, ChronoUnit.MINUTES))
+                    .scheduledWindowEnd(r.getScheduledTime().plus(timeWindowMinutes, ChronoUnit.MINUTES))
+                    .centroidPickupLat(centroid[0])
+                    .centroidPickupLng(centroid[1])
+                    .maxGroupSize(matchingProperties.getMaxGroupSize())
+                    .currentSize(cluster.size())
+                    .stopSequence(plan != null ? plan.stopSequence() : null)
+                    .estimatedRouteMinutes(plan != null ? plan.getTotalSeconds() / 60.0 : null)
+                    .maxDetourMinutes(plan != null ? plan.getMaxDetourSeconds() / 60.0 : null)
+                    .status(ScheduledRideStatus.SCHEDULED)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build();
+            formed.add(new FormedGroup(group, cluster));
+        }
+        if (formed.isEmpty()) return;
+
+        // One bulk write per collection for the whole pass
+        GroupBatchWriteResult result = groupRepo.saveFormedGroups(formed, now);
+        List<ScheduledRide> grouped = new ArrayList<>();
+        for (FormedGroup f : result.getPersisted()) {
+            for (ScheduledRide m : f.getRides()) {
+                m.setSharedGroupId(f.getGroup().getId());
+                m.setStatus(ScheduledRideStatus.SCHEDULED);
+                m.setUpdatedAt(now);
+                activeRideIndex.apply(m);
+                dispatchWheel.track(m);
+                grouped.add(m);
             }
         }
+        rideEvents.ridesChanged(grouped, List.of());
+        if (!result.getRolledBack().isEmpty()) {
+            log.warn("Rolled back {} of {} formed groups, their rides stay GROUPING for the next pass: {}",
+                    result.getRolledBack().size(), formed.size(), result.getErrors());
+        }
+        if (!result.getUnresolved().isEmpty()) {
+            log.error("Could not roll back shared ride groups {}, their rides need repair: {}",
+                    result.getUnresolved().stream().map(f -> f.getGroup().getId()).toList(), result.getErrors());
+        }
+        log.debug("Persisted {} shared ride groups", result.getPersisted().size());
+    }
+
+    private RideClusteringEngine selectEngine() {
+        return clusteringEngines.stream()
+                .filter(e -> e.name().equalsIgnoreCase(engineName))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Unknown matching engine: " + engineName));
+    }
+
+    /**
+     * Runs the greedy reference engine over the same candidates and logs any difference,
+     * so a new engine can be shadow-tested against the original behaviour in production.
+     */
+    private void compareWithReference(List<ScheduledRide> candidates, List<RideCluster> clusters) {
+        List<RideCluster> reference = greedyClusteringEngine.cluster(candidates);
+        Set<List<String>> actual = clusterIds(clusters);
+        Set<List<String>> expected = clusterIds(reference);
+        if (!actual.equals(expected)) {
+            log.warn("Matching engine '{}' diverged from greedy reference: {} groups vs {} reference groups",
+                    engineName, actual.size(), expected.size());
+        } else {
+            log.debug("Matching engine '{}' matches greedy reference ({} groups)", engineName, actual.size());
+        }
+    }
+
+    private static Set<List<String>> clusterIds(List<RideCluster> clusters) {
+        Set<List<String>> ids = new HashSet<>();
+        for (RideCluster cluster : clusters) {
+            ids.add(cluster.getRides().stream().map(ScheduledRide::getId).sorted().toList());
+        }
+        return ids;
     }
 
     @Override
     public void dispatchDueGroups(Instant dispatchBefore) {
-        Instant now = Instant.now();
-    // Find rides in groups due for dispatch
-    // Use a reasonable lower bound - 1 year ago
-    Instant lowerBound = now.minus(365, ChronoUnit.DAYS);
-    java.util.List<ScheduledRide> due = rideRepo.findByIsSharedRideTrueAndStatusAndScheduledTimeBetween(
-        ScheduledRideStatus.SCHEDULED,
-        lowerBound, dispatchBefore);
-
-        // Group by sharedGroupId and dispatch each group once
-    due.stream()
-           .filter(r -> r.getSharedGroupId() != null)
-           .map(ScheduledRide::getSharedGroupId)
-           .distinct()
-           .forEach(groupId -> {
-           java.util.List<ScheduledRide> members = memberRepo.findByGroupId(groupId).stream()
-                       .map(m -> rideRepo.findById(m.getRideId()).orElse(null))
-                       .filter(Objects::nonNull)
-                       .toList();
-               if (!members.isEmpty()) {
-                   publisher.publishSharedRideGroupRequest(groupId, members);
-                   members.forEach(m -> {
-                       m.setStatus(ScheduledRideStatus.DISPATCHED);
-                       m.setUpdatedAt(now);
-                   });
-                   rideRepo.saveAll(members);
-                   groupRepo.findById(groupId).ifPresent(g -> { 
-                       g.setStatus(ScheduledRideStatus.DISPATCHED);
-                       g.setUpdatedAt(now);
-                       groupRepo.save(g); 
-                   });
-               }
-           });
+        // Only the slice scheduled since the last tick is scanned, not the whole history
+        Instant after = dispatchWatermarks.sliceStart(DispatchWatermark.SHARED);
+        dispatchGroupsOf(rideRepo.findDueSlice(ScheduledRideStatus.SCHEDULED, true, after, dispatchBefore));
+        dispatchWatermarks.advance(DispatchWatermark.SHARED, dispatchBefore);
+    }
+
+    @Override
+    public void sweepOverdueGroups() {
+        List<ScheduledRide> stragglers = rideRepo.findDueSlice(ScheduledRideStatus.SCHEDULED, true,
+                dispatchWatermarks.sweepStart(), dispatchWatermarks.sliceStart(DispatchWatermark.SHARED));
+        if (!stragglers.isEmpty()) {
+            log.warn("Dispatching {} overdue shared rides missed by the regular dispatch slice", stragglers.size());
+            overdueSharedCounter.increment(stragglers.size());
+        }
+        dispatchGroupsOf(stragglers);
     }
 
-    private static long minutesBetween(Instant a, Instant b) {
-        return Duration.between(a, b).abs().toMinutes();
+    @Override
+    public void dispatchGroups(Collection<String> groupIds) {
+        // Groups already dispatched elsewhere have no SCHEDULED rides left and drop out here
+        dispatchGroupsOf(rideRepo.findBySharedGroupIdInAndStatus(groupIds, ScheduledRideStatus.SCHEDULED));
+    }
+
+    private void dispatchGroupsOf(List<ScheduledRide> due) {
+        Instant now = Instant.now();
+        Set<String> groupIds = new LinkedHashSet<>();
+        for (ScheduledRide r : due) {
+            if (r.getSharedGroupId() != null) groupIds.add(r.getSharedGroupId());
+        }
+        if (groupIds.isEmpty()) return;
+
+        String claimId = UUID.randomUUID().toString();
+        List<ScheduledRide> dispatchedRides = new ArrayList<>();
+        List<String> dispatchedGroupIds;
+        try {
+            // Group, member and outbox writes commit together; the relay publishes them afterwards
+            dispatchedGroupIds = rideOutbox.inTransaction(() -> {
+                // Only groups this node moves out of SCHEDULED are dispatched, so racing replicas split them
+                if (groupRepo.claimForDispatch(groupIds, schedulerNode.getNodeId(), claimId, now) == 0) {
+                    return List.<String>of();
+                }
+                List<String> claimedGroupIds = groupRepo.findClaimed(groupIds, claimId).stream()
+                        .map(ScheduledSharedRideGroup::getId)
+                        .toList();
+
+                // Resolve all claimed groups and their members with two more queries, however many groups are due
+                Map<String, List<String>> memberIdsByGroup = new LinkedHashMap<>();
+                for (ScheduledSharedRideMember m : memberRepo.findByGroupIdIn(claimedGroupIds)) {
+                    memberIdsByGroup.computeIfAbsent(m.getGroupId(), k -> new ArrayList<>()).add(m.getRideId());
+                }
+                List<String> memberIds = memberIdsByGroup.values().stream().flatMap(List::stream).toList();
+                // One conditional updateMany for every member; only the rides it moved are dispatched
+                Map<String, ScheduledRide> ridesById = new HashMap<>();
+                if (!memberIds.isEmpty()
+                        && rideRepo.claimMembersForDispatch(memberIds, schedulerNode.getNodeId(), claimId, now) > 0) {
+                    for (ScheduledRide r : rideRepo.findClaimed(memberIds, claimId)) {
+                        ridesById.put(r.getId(), r);
+                    }
+                }
+
+                List<OutboxMessage> messages = new ArrayList<>();
+                for (String groupId : claimedGroupIds) {
+                    List<ScheduledRide> members = memberIdsByGroup.getOrDefault(groupId, List.of()).stream()
+                            .map(ridesById::get)
+                            .filter(Objects::nonNull)
+                            .toList();
+                    if (members.isEmpty()) continue;
+                    messages.add(rideOutbox.sharedDispatch(groupId, claimId, members));
+                    dispatchedRides.addAll(members);
+                }
+                rideOutbox.enqueue(messages);
+                return claimedGroupIds;
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Dispatch of {} shared ride groups rolled back, retrying later: {}", groupIds.size(), ex.getMessage());
+            dispatchWheel.retryGroups(groupIds);
+            return;
+        }
+
+        dispatchMetrics.dispatched(DispatchMetrics.SHARED, dispatchedRides, Instant.now());
+        activeRideIndex.applyAll(dispatchedRides);
+        dispatchWheel.forgetGroups(dispatchedGroupIds);
+        rideEvents.ridesChanged(dispatchedRides, List.of());
+        log.debug("Dispatched {} shared ride groups ({} rides)", dispatchedGroupIds.size(), dispatchedRides.size());
     }
 
     private static double[] centroid(List<ScheduledRide> rides) {
@@ -132,13 +293,4 @@ public class SharedRideMatchingServiceImpl implements SharedRideMatchingService
         }
         return new double[]{lat / rides.size(), lng / rides.size()};
     }
-
-    private static double distanceMeters(Double lat1, Double lon1, Double lat2, Double lon2) {
-        double R = 6371000.0;
-        double dLat = toRadians(lat2 - lat1);
-        double dLon = toRadians(lon2 - lon1);
-        double a = sin(dLat/2)*sin(dLat/2) + cos(toRadians(lat1))*cos(toRadians(lat2))*sin(dLon/2)*sin(dLon/2);
-        double c = 2 * atan2(sqrt(a), sqrt(1-a));
-        return R * c;
-    }
-}
\ No newline at end of file
+}
@@ -3,11 +3,10 @@ package com.thirikkale.scheduledrideservice.util;
 /**
  * Utility class for calculating distances between geographic coordinates
  * Uses the Haversine formula for calculating great-circle distances
+ * Null-tolerant wrapper; hot paths use {@link GeoKernel} directly
  */
 public class DistanceCalculator {
     
-    private static final double EARTH_RADIUS_KM = 6371.0;
-    
     /**
      * Calculate distance between two points using Haversine formula
      * 
@@ -22,20 +21,7 @@ public class DistanceCalculator {
             return Double.MAX_VALUE;
         }
         
-        // Convert latitude and longitude from degrees to radians
-        double lat1Rad = Math.toRadians(lat1);
-        double lat2Rad = Math.toRadians(lat2);
-        double deltaLat = Math.toRadians(lat2 - lat1);
-        double deltaLon = Math.toRadians(lon2 - lon1);
-        
-        // Haversine formula
-        double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2) +
-                   Math.cos(lat1Rad) * Math.cos(lat2Rad) *
-                   Math.sin(deltaLon / 2) * Math.sin(deltaLon / 2);
-        
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        
-        return EARTH_RADIUS_KM * c;
+        return GeoKernel.distanceKm(lat1, lon1, lat2, lon2);
     }
     
     /**
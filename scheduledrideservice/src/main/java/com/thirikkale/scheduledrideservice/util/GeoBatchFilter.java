@@ -0,0 +1,81 @@
+package com.thirikkale.scheduledrideservice.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Radius filter over a structure-of-arrays block of coordinates, see
+ * {@link GeoKernel.Circle#filter(double[], double[], int, int[], double[])} for the contract.
+ *
+ * {@link #get()} uses the Java Vector API when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector} and has SIMD registers of at least four doubles,
+ * and the scalar kernel otherwise. {@code -Dgeo.vector.enabled=false} forces the scalar kernel.
+ */
+public interface GeoBatchFilter {
+
+    int filter(GeoKernel.Circle area, double[] lats, double[] lngs, int count, int[] within, double[] distancesKm);
+
+    String name();
+
+    static GeoBatchFilter get() {
+        return Selected.INSTANCE;
+    }
+
+    static GeoBatchFilter scalar() {
+        return Selected.SCALAR;
+    }
+
+    /**
+     * @return the Vector API filter, or null when this JVM cannot run it
+     */
+    static GeoBatchFilter vector() {
+        return Selected.VECTOR;
+    }
+
+    @Slf4j
+    final class Selected {
+        private static final String VECTOR_MODULE = "jdk.incubator.vector";
+        private static final String VECTOR_CLASS = "com.thirikkale.scheduledrideservice.util.VectorGeoBatchFilter";
+
+        static final GeoBatchFilter SCALAR = new GeoBatchFilter() {
+            @Override
+            public int filter(GeoKernel.Circle area, double[] lats, double[] lngs, int count,
+                              int[] within, double[] distancesKm) {
+                return area.filter(lats, lngs, count, within, distancesKm);
+            }
+
+            @Override
+            public String name() {
+                return "scalar";
+            }
+        };
+        static final GeoBatchFilter VECTOR = loadVector();
+        static final GeoBatchFilter INSTANCE = choose();
+
+        private Selected() {
+        }
+
+        // Loaded by name so the class never links against the incubator module when it is absent
+        private static GeoBatchFilter loadVector() {
+            if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+                return null;
+            }
+            try {
+                return (GeoBatchFilter) Class.forName(VECTOR_CLASS).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                log.info("Vector API geo filter unavailable: {}", e.toString());
+                return null;
+            } catch (RuntimeException e) {
+                // Thrown by the constructor when the SIMD registers are too narrow to pay off
+                log.info("Vector API geo filter not used: {}", e.getMessage());
+                return null;
+            }
+        }
+
+        private static GeoBatchFilter choose() {
+            boolean enabled = Boolean.parseBoolean(System.getProperty("geo.vector.enabled", "true"));
+            GeoBatchFilter chosen = enabled && VECTOR != null ? VECTOR : SCALAR;
+            log.info("Geo batch filter: {}", chosen.name());
+            return chosen;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.thirikkale.scheduledrideservice.util;
+
+/**
+ * Primitive great-circle distance and radius checks for the hot paths (proximity search,
+ * route matching, clustering). Same haversine and earth radius as {@link DistanceCalculator},
+ * without boxed arguments.
+ *
+ * Radius checks go through a {@link Circle} built once per query point. It rejects points
+ * outside its latitude/longitude bounding box with plain comparisons, caches the cosine of the
+ * query latitude, and compares the haversine term against a precomputed threshold, so a point
+ * inside the box costs three trig calls and no square root or atan2.
+ */
+public final class GeoKernel {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    // Widens the bounding box by about 0.1 mm so rounding can never reject a point on the circle
+    private static final double BOX_SLACK_DEGREES = 1e-9;
+
+    private GeoKernel() {
+    }
+
+    /**
+     * Haversine distance in kilometers.
+     */
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        return distanceKm(lat1, Math.cos(Math.toRadians(lat1)), lng1, lat2, lng2);
+    }
+
+    public static Circle circle(double latitude, double longitude, double radiusKm) {
+        return new Circle(latitude, longitude, radiusKm);
+    }
+
+    private static double distanceKm(double lat1, double cosLat1, double lng1, double lat2, double lng2) {
+        return EARTH_RADIUS_KM * centralAngle(haversine(lat1, cosLat1, lng1, lat2, lng2));
+    }
+
+    private static double haversine(double lat1, double cosLat1, double lng1, double lat2, double lng2) {
+        double sinHalfLat = Math.sin(Math.toRadians(lat2 - lat1) / 2);
+        double sinHalfLng = Math.sin(Math.toRadians(lng2 - lng1) / 2);
+        return sinHalfLat * sinHalfLat + cosLat1 * Math.cos(Math.toRadians(lat2)) * sinHalfLng * sinHalfLng;
+    }
+
+    static double centralAngle(double a) {
+        return 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    /**
+     * A query point and radius. Immutable, so one instance can be shared across threads.
+     */
+    public static final class Circle {
+        private final double latitude;
+        private final double longitude;
+        private final double cosLatitude;
+        private final double radiusKm;
+        private final double minLat;
+        private final double maxLat;
+        // Half-width of the box in longitude; infinite when the circle reaches a pole
+        private final double lngHalfWidth;
+        // Haversine term of the radius: a point is inside when its own term is not larger
+        private final double maxHaversine;
+
+        private Circle(double latitude, double longitude, double radiusKm) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cosLatitude = Math.cos(Math.toRadians(latitude));
+            this.radiusKm = radiusKm;
+
+            double angle = radiusKm / EARTH_RADIUS_KM;
+            double latSpan = Math.toDegrees(angle);
+            this.minLat = latitude - latSpan - BOX_SLACK_DEGREES;
+            this.maxLat = latitude + latSpan + BOX_SLACK_DEGREES;
+            if (maxLat >= 90 || minLat <= -90 || angle >= Math.PI / 2) {
+                this.lngHalfWidth = Double.POSITIVE_INFINITY;
+            } else {
+                // Widest longitude offset on the circle, reached at a latitude between the box edges
+                this.lngHalfWidth = Math.toDegrees(Math.asin(Math.sin(angle) / cosLatitude)) + BOX_SLACK_DEGREES;
+            }
+            double sinHalfAngle = Math.sin(Math.min(angle, Math.PI) / 2);
+            this.maxHaversine = sinHalfAngle * sinHalfAngle;
+        }
+
+        public double latitude() {
+            return latitude;
+        }
+
+        public double longitude() {
+            return longitude;
+        }
+
+        public double radiusKm() {
+            return radiusKm;
+        }
+
+        public double distanceKm(double lat, double lng) {
+            return GeoKernel.distanceKm(latitude, cosLatitude, longitude, lat, lng);
+        }
+
+        /**
+         * Cheap necessary condition for {@link #contains}, no trigonometry.
+         */
+        public boolean inBoundingBox(double lat, double lng) {
+            if (lat < minLat || lat > maxLat) return false;
+            double dLng = Math.abs(lng - longitude);
+            if (dLng > 180) dLng = 360 - dLng;
+            return dLng <= lngHalfWidth;
+        }
+
+        public boolean contains(double lat, double lng) {
+            return inBoundingBox(lat, lng) && haversine(latitude, cosLatitude, longitude, lat, lng) <= maxHaversine;
+        }
+
+        /**
+         * @return the distance in kilometers, or NaN when the point is outside the circle
+         */
+        public double distanceIfWithinKm(double lat, double lng) {
+            if (!inBoundingBox(lat, lng)) return Double.NaN;
+            double a = haversine(latitude, cosLatitude, longitude, lat, lng);
+            return a <= maxHaversine ? EARTH_RADIUS_KM * centralAngle(a) : Double.NaN;
+        }
+
+        /**
+         * Evaluates the first {@code count} points of a structure-of-arrays block. Scalar code;
+         * {@link GeoBatchFilter} picks a SIMD version when the JVM offers one.
+         *
+         * @param within receives the positions of the points inside the circle, in ascending order
+         * @param distancesKm receives their distances at the same positions as {@code within}; may be null
+         * @return how many positions were written
+         */
+        public int filter(double[] lats, double[] lngs, int count, int[] within, double[] distancesKm) {
+            return filter(lats, lngs, 0, count, within, distancesKm, 0);
+        }
+
+        /**
+         * Scalar filter of positions [from, to), appending after the first {@code found} results.
+         */
+        int filter(double[] lats, double[] lngs, int from, int to, int[] within, double[] distancesKm, int found) {
+            for (int i = from; i < to; i++) {
+                if (!inBoundingBox(lats[i], lngs[i])) continue;
+                double a = haversine(latitude, cosLatitude, longitude, lats[i], lngs[i]);
+                if (a <= maxHaversine) {
+                    if (distancesKm != null) {
+                        distancesKm[found] = EARTH_RADIUS_KM * centralAngle(a);
+                    }
+                    within[found++] = i;
+                }
+            }
+            return found;
+        }
+
+        double cosLatitude() {
+            return cosLatitude;
+        }
+
+        double minLat() {
+            return minLat;
+        }
+
+        double maxLat() {
+            return maxLat;
+        }
+
+        double lngHalfWidth() {
+            return lngHalfWidth;
+        }
+
+        double maxHaversine() {
+            return maxHaversine;
+        }
+    }
+}
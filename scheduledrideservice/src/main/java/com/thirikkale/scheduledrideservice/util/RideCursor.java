@@ -0,0 +1,27 @@
+package com.thirikkale.scheduledrideservice.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in the (scheduledTime, id) order used by the paged ride listing.
+ * Encoded as URL-safe base64 of "epochMillis:id" so clients just echo it back.
+ */
+public record RideCursor(Instant scheduledTime, String id) {
+
+    public String encode() {
+        String raw = scheduledTime.toEpochMilli() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static RideCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            return new RideCursor(Instant.ofEpochMilli(Long.parseLong(raw.substring(0, sep))), raw.substring(sep + 1));
+        } catch (RuntimeException ex) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+    }
+}
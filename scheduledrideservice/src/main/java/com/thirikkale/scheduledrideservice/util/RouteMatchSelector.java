@@ -0,0 +1,139 @@
+package com.thirikkale.scheduledrideservice.util;
+
+import com.thirikkale.scheduledrideservice.model.RouteMatchResult;
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the best {@code limit} route matches offered so far in a bounded max-heap, so ranking
+ * costs O(n log k) time and O(k) memory however many rides are offered. A ride matches when its
+ * pickup and dropoff are inside both circles; its score is
+ * {@code pickupWeight * pickupKm + dropoffWeight * dropoffKm}, lower is better.
+ *
+ * Candidate generators that visit rides in increasing distance from one end can pass a lower
+ * bound for everything not visited yet to {@link #canBeat} and stop as soon as it is false.
+ * Not thread-safe; one instance per query.
+ */
+public final class RouteMatchSelector {
+
+    private static final Comparator<RouteMatchResult> BEST_FIRST =
+            Comparator.comparingDouble(RouteMatchResult::getScore)
+                    .thenComparingDouble(RouteMatchResult::getPickupDistanceKm);
+
+    private final GeoKernel.Circle pickupArea;
+    private final GeoKernel.Circle dropoffArea;
+    private final double pickupWeight;
+    private final double dropoffWeight;
+    private final int limit;
+    // Worst kept match on top, so it is the one a better candidate replaces
+    private final PriorityQueue<RouteMatchResult> heap;
+
+    public RouteMatchSelector(GeoKernel.Circle pickupArea, GeoKernel.Circle dropoffArea,
+                              double pickupWeight, double dropoffWeight, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive: " + limit);
+        }
+        this.pickupArea = pickupArea;
+        this.dropoffArea = dropoffArea;
+        this.pickupWeight = pickupWeight;
+        this.dropoffWeight = dropoffWeight;
+        this.limit = limit;
+        this.heap = new PriorityQueue<>(Math.min(limit, 64) + 1, BEST_FIRST.reversed());
+    }
+
+    /**
+     * An empty selector for the same query.
+     */
+    public RouteMatchSelector emptyCopy() {
+        return new RouteMatchSelector(pickupArea, dropoffArea, pickupWeight, dropoffWeight, limit);
+    }
+
+    public GeoKernel.Circle pickupArea() {
+        return pickupArea;
+    }
+
+    public GeoKernel.Circle dropoffArea() {
+        return dropoffArea;
+    }
+
+    public double pickupWeight() {
+        return pickupWeight;
+    }
+
+    public double dropoffWeight() {
+        return dropoffWeight;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public double score(double pickupKm, double dropoffKm) {
+        return pickupWeight * pickupKm + dropoffWeight * dropoffKm;
+    }
+
+    /**
+     * The score a candidate has to stay below to be kept; infinite until {@code limit} matches are held.
+     */
+    public double threshold() {
+        return heap.size() < limit ? Double.POSITIVE_INFINITY : heap.peek().getScore();
+    }
+
+    /**
+     * Whether a ride at least this far from each end could still be kept.
+     */
+    public boolean canBeat(double minPickupKm, double minDropoffKm) {
+        return score(minPickupKm, minDropoffKm) < threshold();
+    }
+
+    /**
+     * Offers a ride whose pickup distance is already known, e.g. from a pickup-ordered scan.
+     */
+    public void offerByPickup(ScheduledRide ride, double pickupKm) {
+        if (ride.getDropoffLatitude() == null || ride.getDropoffLongitude() == null
+                || !(pickupKm <= pickupArea.radiusKm()) || !canBeat(pickupKm, 0)) {
+            return;
+        }
+        double dropoffKm = dropoffArea.distanceIfWithinKm(ride.getDropoffLatitude(), ride.getDropoffLongitude());
+        if (!Double.isNaN(dropoffKm)) {
+            offer(ride, pickupKm, dropoffKm);
+        }
+    }
+
+    /**
+     * Offers a ride whose dropoff distance is already known, e.g. from a dropoff-ordered scan.
+     */
+    public void offerByDropoff(ScheduledRide ride, double dropoffKm) {
+        if (ride.getPickupLatitude() == null || ride.getPickupLongitude() == null
+                || !(dropoffKm <= dropoffArea.radiusKm()) || !canBeat(0, dropoffKm)) {
+            return;
+        }
+        double pickupKm = pickupArea.distanceIfWithinKm(ride.getPickupLatitude(), ride.getPickupLongitude());
+        if (!Double.isNaN(pickupKm)) {
+            offer(ride, pickupKm, dropoffKm);
+        }
+    }
+
+    private void offer(ScheduledRide ride, double pickupKm, double dropoffKm) {
+        double score = score(pickupKm, dropoffKm);
+        if (heap.size() < limit) {
+            heap.add(new RouteMatchResult(ride, pickupKm, dropoffKm, score));
+        } else if (score < heap.peek().getScore()) {
+            heap.poll();
+            heap.add(new RouteMatchResult(ride, pickupKm, dropoffKm, score));
+        }
+    }
+
+    /**
+     * The kept matches, best first.
+     */
+    public List<RouteMatchResult> results() {
+        List<RouteMatchResult> results = new ArrayList<>(heap);
+        results.sort(BEST_FIRST);
+        return results;
+    }
+}
@@ -0,0 +1,85 @@
+package com.thirikkale.scheduledrideservice.util;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD version of the scalar Circle filter: the bounding-box test and the haversine term run
+ * one register of points at a time, and trigonometry is skipped for registers with no point
+ * inside the box. Only loaded through {@link GeoBatchFilter}, since referencing this class
+ * fails without the jdk.incubator.vector module.
+ */
+final class VectorGeoBatchFilter implements GeoBatchFilter {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final double DEGREES_TO_RADIANS = Math.PI / 180.0;
+    // Survivors are read back through an array: on JDK 17 both lane(i) with a variable i and
+    // VectorMask.toLong() allocate, while intoArray and anyTrue do not
+    private static final ThreadLocal<double[]> HAVERSINE_LANES =
+            ThreadLocal.withInitial(() -> new double[SPECIES.length()]);
+
+    VectorGeoBatchFilter() {
+        if (SPECIES.length() < 4) {
+            throw new IllegalStateException("only " + SPECIES.length() + " doubles per vector");
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector-" + SPECIES.vectorBitSize();
+    }
+
+    @Override
+    public int filter(GeoKernel.Circle area, double[] lats, double[] lngs, int count, int[] within, double[] distancesKm) {
+        double qLat = area.latitude();
+        double qLng = area.longitude();
+        double cosQLat = area.cosLatitude();
+        double minLat = area.minLat();
+        double maxLat = area.maxLat();
+        double lngHalfWidth = area.lngHalfWidth();
+        double maxHaversine = area.maxHaversine();
+
+        int found = 0;
+        int lanes = SPECIES.length();
+        DoubleVector outside = DoubleVector.broadcast(SPECIES, Double.POSITIVE_INFINITY);
+        double[] haversineLanes = HAVERSINE_LANES.get();
+        int upper = SPECIES.loopBound(count);
+        for (int i = 0; i < upper; i += lanes) {
+            DoubleVector lat = DoubleVector.fromArray(SPECIES, lats, i);
+            DoubleVector lng = DoubleVector.fromArray(SPECIES, lngs, i);
+
+            DoubleVector dLng = lng.sub(qLng);
+            DoubleVector absDLng = dLng.abs();
+            absDLng = absDLng.blend(absDLng.neg().add(360.0), absDLng.compare(VectorOperators.GT, 180.0));
+            VectorMask<Double> inBox = lat.compare(VectorOperators.GE, minLat)
+                    .and(lat.compare(VectorOperators.LE, maxLat))
+                    .and(absDLng.compare(VectorOperators.LE, lngHalfWidth));
+            if (!inBox.anyTrue()) continue;
+
+            // Same operation order as the scalar haversine
+            DoubleVector sinHalfLat = lat.sub(qLat).mul(DEGREES_TO_RADIANS).mul(0.5).lanewise(VectorOperators.SIN);
+            DoubleVector sinHalfLng = dLng.mul(DEGREES_TO_RADIANS).mul(0.5).lanewise(VectorOperators.SIN);
+            DoubleVector cosLat = lat.mul(DEGREES_TO_RADIANS).lanewise(VectorOperators.COS);
+            DoubleVector haversine = sinHalfLat.mul(sinHalfLat)
+                    .add(cosLat.mul(cosQLat).mul(sinHalfLng).mul(sinHalfLng));
+
+            // Lanes outside the box become +Inf so they fail the threshold
+            haversine = outside.blend(haversine, inBox);
+            if (!haversine.compare(VectorOperators.LE, maxHaversine).anyTrue()) continue;
+
+            haversine.intoArray(haversineLanes, 0);
+            for (int lane = 0; lane < lanes; lane++) {
+                double a = haversineLanes[lane];
+                if (a <= maxHaversine) {
+                    if (distancesKm != null) {
+                        distancesKm[found] = GeoKernel.EARTH_RADIUS_KM * GeoKernel.centralAngle(a);
+                    }
+                    within[found++] = i + lane;
+                }
+            }
+        }
+        return area.filter(lats, lngs, upper, count, within, distancesKm, found);
+    }
+}
@@ -0,0 +1,63 @@
+package com.thirikkale.scheduledrideservice.config;
+
+import com.thirikkale.scheduledrideservice.messaging.payload.SoloRideRequestPayload;
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ObjectInputStream;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RabbitConfigTest {
+
+    private static final SoloRideRequestPayload SOLO = SoloRideRequestPayload.of(ScheduledRide.builder()
+            .id("r1").riderId("u1").pickupLatitude(6.9).pickupLongitude(79.85)
+            .dropoffLatitude(6.93).dropoffLongitude(79.9).passengers(1)
+            .scheduledTime(Instant.parse("2026-01-01T08:00:00Z"))
+            .build());
+
+    private static Message send(String contentType) {
+        RabbitConfig config = new RabbitConfig();
+        ReflectionTestUtils.setField(config, "payloadContentType", contentType);
+        MessageConverter converter = config.rideRequestMessageConverter();
+        return converter.toMessage(SOLO, new MessageProperties());
+    }
+
+    @Test
+    void legacyEncodingSendsTheJavaSerializedMap() throws Exception {
+        Message message = send(RabbitConfig.CONTENT_TYPE_LEGACY);
+
+        assertEquals("application/x-java-serialized-object", message.getMessageProperties().getContentType());
+        assertNull(message.getMessageProperties().getHeader("__TypeId__"));
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(message.getBody()))) {
+            Object body = in.readObject();
+            assertInstanceOf(HashMap.class, body);
+            Map<?, ?> map = (Map<?, ?>) body;
+            assertEquals("r1", map.get("rideId"));
+            assertEquals("2026-01-01T08:00:00Z", map.get("scheduledTime"));
+            assertEquals(false, map.get("isShared"));
+            assertEquals(17, map.size());
+        }
+    }
+
+    @Test
+    void typedEncodingsSendAStableTypeId() {
+        Message json = send("application/json");
+        assertEquals("application/json", json.getMessageProperties().getContentType());
+        assertEquals("solo-ride-request", json.getMessageProperties().getHeader("__TypeId__"));
+
+        Message cbor = send(RabbitConfig.CONTENT_TYPE_CBOR);
+        assertEquals("application/cbor", cbor.getMessageProperties().getContentType());
+        assertEquals("solo-ride-request", cbor.getMessageProperties().getHeader("__TypeId__"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.thirikkale.scheduledrideservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thirikkale.scheduledrideservice.dto.ScheduledRideResponseDto;
+import com.thirikkale.scheduledrideservice.event.RideSubscriptions;
+import com.thirikkale.scheduledrideservice.service.ScheduledRideService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ScheduledRideControllerConditionalGetTest {
+
+    private ScheduledRideService service;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        service = mock(ScheduledRideService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ScheduledRideController(service, new ObjectMapper(), mock(RideSubscriptions.class))).build();
+    }
+
+    @Test
+    void unchangedRiderRidesAnswer304WithoutLoadingThem() throws Exception {
+        when(service.getRiderRidesVersion(eq("rider-1"), isNull(), any())).thenReturn("3-1700000000000");
+
+        mockMvc.perform(get("/api/scheduled-rides/rider/rider-1").header("If-None-Match", "\"3-1700000000000\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3-1700000000000\""));
+
+        verify(service, never()).getRidesByRiderId(any());
+    }
+
+    @Test
+    void changedRiderRidesAreReturnedWithTheNewETag() throws Exception {
+        when(service.getRiderRidesVersion(eq("rider-1"), isNull(), any())).thenReturn("4-1700000005000");
+        when(service.getRidesByRiderId("rider-1"))
+                .thenReturn(List.of(ScheduledRideResponseDto.builder().id("ride-1").build()));
+
+        mockMvc.perform(get("/api/scheduled-rides/rider/rider-1").header("If-None-Match", "\"3-1700000000000\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4-1700000005000\""))
+                .andExpect(jsonPath("$[0].id").value("ride-1"));
+    }
+}
@@ -0,0 +1,56 @@
+package com.thirikkale.scheduledrideservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thirikkale.scheduledrideservice.dto.ScheduledRidePageDto;
+import com.thirikkale.scheduledrideservice.dto.ScheduledRideResponseDto;
+import com.thirikkale.scheduledrideservice.event.RideSubscriptions;
+import com.thirikkale.scheduledrideservice.service.ScheduledRideService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ScheduledRideControllerListingTest {
+
+    private ScheduledRideService service;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        service = mock(ScheduledRideService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ScheduledRideController(service, new ObjectMapper(), mock(RideSubscriptions.class))).build();
+    }
+
+    @Test
+    void listingReturnsOnePageAndLinksTheNext() throws Exception {
+        when(service.getRidesPage(List.of(), null, null, null, null)).thenReturn(ScheduledRidePageDto.builder()
+                .items(List.of(ScheduledRideResponseDto.builder().id("ride-1").build()))
+                .nextCursor("abc")
+                .build());
+
+        mockMvc.perform(get("/api/scheduled-rides"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("ride-1"))
+                .andExpect(header().string("Link", "<http://localhost/api/scheduled-rides?cursor=abc>; rel=\"next\""));
+    }
+
+    @Test
+    void lastPageHasNoLink() throws Exception {
+        when(service.getRidesPage(eq(List.of()), isNull(), isNull(), eq("abc"), isNull())).thenReturn(ScheduledRidePageDto.builder()
+                .items(List.of(ScheduledRideResponseDto.builder().id("ride-2").build()))
+                .build());
+
+        mockMvc.perform(get("/api/scheduled-rides").param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("ride-2"))
+                .andExpect(header().doesNotExist("Link"));
+    }
+}
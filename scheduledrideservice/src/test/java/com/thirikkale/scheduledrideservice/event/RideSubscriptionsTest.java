@@ -0,0 +1,83 @@
+package com.thirikkale.scheduledrideservice.event;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class RideSubscriptionsTest {
+
+    private RideSubscriptions subscriptions;
+    private MockMvc mockMvc;
+
+    @RestController
+    class Streams {
+        @GetMapping("/rider/{riderId}")
+        SseEmitter rider(@PathVariable String riderId) {
+            return subscriptions.subscribeToRider(riderId);
+        }
+
+        @GetMapping("/driver/{driverId}")
+        SseEmitter driver(@PathVariable String driverId) {
+            return subscriptions.subscribeToDriver(driverId);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        subscriptions = new RideSubscriptions(new SimpleMeterRegistry(), new MockEnvironment());
+        ReflectionTestUtils.setField(subscriptions, "timeoutMinutes", 1L);
+        ReflectionTestUtils.setField(subscriptions, "maxSubscribers", 10);
+        ReflectionTestUtils.setField(subscriptions, "senderThreads", 1);
+        subscriptions.init();
+        mockMvc = MockMvcBuilders.standaloneSetup(new Streams()).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptions.shutdown();
+    }
+
+    @Test
+    void changesReachTheRiderAndTheDriverTheRideWasTakenFrom() throws Exception {
+        MvcResult rider = mockMvc.perform(get("/rider/rider-1")).andExpect(request().asyncStarted()).andReturn();
+        MvcResult oldDriver = mockMvc.perform(get("/driver/driver-1")).andExpect(request().asyncStarted()).andReturn();
+        MvcResult otherRider = mockMvc.perform(get("/rider/rider-2")).andExpect(request().asyncStarted()).andReturn();
+
+        ScheduledRide ride = ScheduledRide.builder()
+                .id("ride-1").riderId("rider-1").status(ScheduledRideStatus.SCHEDULED)
+                .updatedAt(Instant.ofEpochMilli(1000)).build();
+        subscriptions.onRideChanged(new RideChangedEvent(List.of(ride), List.of("driver-1"), false));
+
+        await().untilAsserted(() -> {
+            assertThat(body(rider)).contains("event:ride", "id:ride-1-1000", "\"status\":\"SCHEDULED\"");
+            assertThat(body(oldDriver)).contains("\"id\":\"ride-1\"");
+        });
+        assertThat(body(otherRider)).isEmpty();
+    }
+
+    private static String body(MvcResult result) throws Exception {
+        MockHttpServletResponse response = result.getResponse();
+        return response.getContentAsString();
+    }
+}
@@ -0,0 +1,181 @@
+package com.thirikkale.scheduledrideservice.index;
+
+import com.thirikkale.scheduledrideservice.model.RouteMatchResult;
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
+import com.thirikkale.scheduledrideservice.repository.ScheduledRideRepository;
+import com.thirikkale.scheduledrideservice.util.GeoKernel;
+import com.thirikkale.scheduledrideservice.util.RouteMatchSelector;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ActiveRideIndexTest {
+
+    private static ActiveRideIndex index(List<ScheduledRide> rides) {
+        return index(null, rides);
+    }
+
+    private static ActiveRideIndex index(ScheduledRideRepository repo, List<ScheduledRide> rides) {
+        ActiveRideIndex index = new ActiveRideIndex(repo);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "cellSizeDegrees", 0.01);
+        ReflectionTestUtils.setField(index, "timeBucketMinutes", 15);
+        index.applyAll(rides);
+        return index;
+    }
+
+    private static List<ScheduledRide> randomRides(long seed, int count) {
+        Random random = new Random(seed);
+        Instant base = Instant.parse("2026-01-01T08:00:00Z");
+        List<ScheduledRide> rides = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rides.add(ScheduledRide.builder()
+                    .id("ride-" + i)
+                    .pickupLatitude(6.80 + random.nextDouble() * 0.3)
+                    .pickupLongitude(79.80 + random.nextDouble() * 0.3)
+                    .dropoffLatitude(6.80 + random.nextDouble() * 0.3)
+                    .dropoffLongitude(79.80 + random.nextDouble() * 0.3)
+                    .scheduledTime(base.plusSeconds(random.nextInt(3600)))
+                    .isSharedRide(false)
+                    .status(ScheduledRideStatus.SCHEDULED)
+                    .updatedAt(base)
+                    .build());
+        }
+        return rides;
+    }
+
+    @Test
+    void routeMatchesEqualTheFullRankingCutAtTheLimit() {
+        List<ScheduledRide> rides = randomRides(11, 5000);
+        ActiveRideIndex index = index(rides);
+        GeoKernel.Circle pickup = GeoKernel.circle(6.95, 79.95, 5.0);
+        GeoKernel.Circle dropoff = GeoKernel.circle(6.93, 79.90, 8.0);
+
+        // Ring search from the pickup side, from the dropoff side, and past the number of matches
+        double[][] weights = {{1, 1}, {2, 0.5}, {0.25, 1}, {0, 1}};
+        for (double[] w : weights) {
+            for (int limit : new int[]{1, 10, 5000}) {
+                RouteMatchSelector selector = new RouteMatchSelector(pickup, dropoff, w[0], w[1], limit);
+                List<String> expected = rides.stream()
+                        .filter(r -> pickup.contains(r.getPickupLatitude(), r.getPickupLongitude())
+                                && dropoff.contains(r.getDropoffLatitude(), r.getDropoffLongitude()))
+                        .sorted(Comparator.comparingDouble(r -> selector.score(
+                                pickup.distanceKm(r.getPickupLatitude(), r.getPickupLongitude()),
+                                dropoff.distanceKm(r.getDropoffLatitude(), r.getDropoffLongitude()))))
+                        .limit(limit)
+                        .map(ScheduledRide::getId)
+                        .toList();
+
+                List<String> actual = index.findRouteMatches(selector).stream()
+                        .map(RouteMatchResult::getRide)
+                        .map(ScheduledRide::getId)
+                        .toList();
+                assertEquals(expected, actual, "weights " + w[0] + "/" + w[1] + ", limit " + limit);
+            }
+        }
+    }
+
+    @Test
+    void staleWriteArrivingAfterARemovalDoesNotReinsertTheRide() {
+        ScheduledRide ride = randomRides(3, 1).get(0);
+        ActiveRideIndex index = index(List.of(ride));
+        Instant cancelledAt = ride.getUpdatedAt().plusSeconds(60);
+
+        index.apply(ride.toBuilder().status(ScheduledRideStatus.CANCELLED).updatedAt(cancelledAt).build());
+        // e.g. the grouping write racing the cancel, delivered late
+        index.apply(ride.toBuilder().status(ScheduledRideStatus.GROUPING).updatedAt(cancelledAt.minusSeconds(1)).build());
+        assertEquals(0, index.size());
+
+        index.apply(ride.toBuilder().status(ScheduledRideStatus.SCHEDULED).updatedAt(cancelledAt.plusSeconds(1)).build());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void tombstonesAreOnlyKeptForRemovedRidesAndExpire() {
+        ScheduledRide ride = randomRides(4, 1).get(0);
+        ActiveRideIndex index = index(List.of(ride));
+        Instant cancelledAt = ride.getUpdatedAt().plusSeconds(60);
+
+        index.apply(ride.toBuilder().status(ScheduledRideStatus.CANCELLED).updatedAt(cancelledAt).build());
+        // Never indexed, nothing to protect
+        index.apply(ride.toBuilder().id("other").status(ScheduledRideStatus.COMPLETED).updatedAt(cancelledAt).build());
+
+        assertEquals(0, index.expireTombstones(cancelledAt));
+        assertEquals(1, index.expireTombstones(cancelledAt.plusSeconds(1)));
+    }
+
+    @Test
+    void overlappingRebuildsKeepWritesMadeDuringEither() throws Exception {
+        ScheduledRideRepository repo = mock(ScheduledRideRepository.class);
+        CountDownLatch firstReading = new CountDownLatch(1);
+        CountDownLatch secondReading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger reads = new AtomicInteger();
+        List<ScheduledRide> stored = new CopyOnWriteArrayList<>();
+        // Both reloads block in MongoDB until released and see what was stored when they started
+        when(repo.findByStatusIn(any())).thenAnswer(inv -> {
+            List<ScheduledRide> seen = List.copyOf(stored);
+            if (reads.incrementAndGet() == 1) {
+                firstReading.countDown();
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+            } else {
+                secondReading.countDown();
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+            }
+            return seen;
+        });
+        ActiveRideIndex index = index(repo, List.of());
+        List<ScheduledRide> rides = randomRides(8, 2);
+
+        CompletableFuture<Integer> scheduled = CompletableFuture.supplyAsync(index::rebuild);
+        assertTrue(firstReading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> admin = CompletableFuture.supplyAsync(index::rebuild);
+        stored.add(rides.get(0));
+        index.apply(rides.get(0));
+        release.countDown();
+        // Written while the later rebuild reads
+        assertTrue(secondReading.await(5, TimeUnit.SECONDS));
+        stored.add(rides.get(1));
+        index.apply(rides.get(1));
+        scheduled.get(5, TimeUnit.SECONDS);
+        admin.get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void radiusSearchWrapsAcrossTheAntimeridian() {
+        ScheduledRide east = randomRides(5, 1).get(0).toBuilder()
+                .id("east").pickupLatitude(-17.0).pickupLongitude(179.99).build();
+        ScheduledRide west = randomRides(6, 1).get(0).toBuilder()
+                .id("west").pickupLatitude(-17.0).pickupLongitude(-179.99).build();
+        // Enough occupied cells elsewhere that the search walks the grid instead of scanning every block
+        List<ScheduledRide> rides = new ArrayList<>(randomRides(7, 2000));
+        rides.add(east);
+        rides.add(west);
+        ActiveRideIndex index = index(rides);
+
+        for (double lng : new double[]{179.995, -179.995, 180.0, -180.0}) {
+            List<String> found = index.findNearPickup(-17.0, lng, 3.0).stream()
+                    .map(r -> r.getRide().getId()).sorted().toList();
+            assertEquals(List.of("east", "west"), found, "query at " + lng);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.thirikkale.scheduledrideservice.matching;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
+import com.thirikkale.scheduledrideservice.util.DistanceCalculator;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GridClusteringEngineTest {
+
+    private static MatchingProperties properties() {
+        MatchingProperties p = new MatchingProperties();
+        ReflectionTestUtils.setField(p, "timeWindowMinutes", 10);
+        ReflectionTestUtils.setField(p, "pickupRadiusMeters", 800);
+        ReflectionTestUtils.setField(p, "maxGroupSize", 3);
+        ReflectionTestUtils.setField(p, "maxDetourMinutes", 8);
+        return p;
+    }
+
+    // 30 km/h along the great circle
+    private static TravelTimeEstimator straightLine() {
+        return (fromLat, fromLng, toLat, toLng, departure) ->
+                DistanceCalculator.calculateDistance(fromLat, fromLng, toLat, toLng)
+                        / 30.0 * 3600.0;
+    }
+
+    private static List<ScheduledRide> randomRides(long seed, int count) {
+        Random random = new Random(seed);
+        Instant base = Instant.parse("2026-01-01T08:00:00Z");
+        List<ScheduledRide> rides = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rides.add(ScheduledRide.builder()
+                    .id("ride-" + i)
+                    .pickupLatitude(6.90 + random.nextDouble() * 0.05)
+                    .pickupLongitude(79.85 + random.nextDouble() * 0.05)
+                    .dropoffLatitude(6.90 + random.nextDouble() * 0.05)
+                    .dropoffLongitude(79.85 + random.nextDouble() * 0.05)
+                    .scheduledTime(base.plusSeconds(random.nextInt(50 * 60)))
+                    .isSharedRide(true)
+                    .status(ScheduledRideStatus.GROUPING)
+                    .build());
+        }
+        return rides;
+    }
+
+    private static List<List<String>> ids(List<RideCluster> clusters) {
+        return clusters.stream().map(c -> c.getRides().stream().map(ScheduledRide::getId).toList()).toList();
+    }
+
+    @Test
+    void gridEngineMatchesGreedyReference() {
+        MatchingProperties properties = properties();
+        DetourEvaluator detour = new DetourEvaluator(straightLine(), properties);
+        GreedyClusteringEngine greedy = new GreedyClusteringEngine(properties, detour);
+        GridClusteringEngine grid = new GridClusteringEngine(properties, detour);
+
+        for (long seed = 1; seed <= 20; seed++) {
+            List<ScheduledRide> rides = randomRides(seed, 400);
+            assertEquals(ids(greedy.cluster(rides)), ids(grid.cluster(rides)), "seed " + seed);
+        }
+    }
+
+    @Test
+    void rejectsRidersGoingOppositeWays() {
+        MatchingProperties properties = properties();
+        GridClusteringEngine grid = new GridClusteringEngine(properties, new DetourEvaluator(straightLine(), properties));
+        Instant time = Instant.parse("2026-01-01T08:00:00Z");
+
+        ScheduledRide north = ride("north", 6.900, 79.860, 7.000, 79.860, time);
+        ScheduledRide alsoNorth = ride("alsoNorth", 6.901, 79.861, 7.001, 79.861, time.plusSeconds(120));
+        ScheduledRide south = ride("south", 6.902, 79.860, 6.800, 79.860, time.plusSeconds(60));
+
+        List<RideCluster> clusters = grid.cluster(List.of(north, south, alsoNorth));
+        assertEquals(List.of(List.of("north", "alsoNorth")), ids(clusters));
+        assertTrue(clusters.get(0).getRoutePlan().getMaxDetourSeconds() <= 8 * 60);
+    }
+
+    @Test
+    void timeWindowMatchesDurationArithmetic() {
+        Random random = new Random(5);
+        Instant base = Instant.parse("2026-01-01T08:00:00Z");
+        for (int i = 0; i < 100_000; i++) {
+            Instant a = base.plusSeconds(random.nextInt(7200)).plusNanos(random.nextInt(3) * random.nextInt(1_000_000_000));
+            Instant b = base.plusSeconds(random.nextInt(7200)).plusNanos(random.nextInt(3) * random.nextInt(1_000_000_000));
+            assertEquals(Duration.between(a, b).abs().toMinutes(), AbstractClusteringEngine.wholeMinutesBetween(a, b),
+                    a + " -> " + b);
+        }
+    }
+
+    private static ScheduledRide ride(String id, double pLat, double pLng, double dLat, double dLng, Instant time) {
+        return ScheduledRide.builder()
+                .id(id)
+                .pickupLatitude(pLat).pickupLongitude(pLng)
+                .dropoffLatitude(dLat).dropoffLongitude(dLng)
+                .scheduledTime(time)
+                .isSharedRide(true)
+                .status(ScheduledRideStatus.GROUPING)
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.thirikkale.scheduledrideservice.messaging;
+
+import com.thirikkale.scheduledrideservice.model.OutboxMessage;
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
+import com.thirikkale.scheduledrideservice.repository.OutboxMessageRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RideOutboxTest {
+
+    // Stands in for the unique index on dedupKey
+    private final Set<String> keys = new HashSet<>();
+    private final List<OutboxMessage> inserted = new ArrayList<>();
+
+    private RideOutbox outbox() {
+        OutboxMessageRepository repo = mock(OutboxMessageRepository.class);
+        when(repo.insert(anyList())).thenAnswer(inv -> {
+            List<OutboxMessage> messages = inv.getArgument(0);
+            for (OutboxMessage m : messages) {
+                if (!keys.add(m.getDedupKey())) throw new DuplicateKeyException(m.getDedupKey());
+            }
+            inserted.addAll(messages);
+            return messages;
+        });
+        RideOutbox outbox = new RideOutbox(repo, mock(OutboxRelay.class), mock(MongoDatabaseFactory.class), false);
+        ReflectionTestUtils.setField(outbox, "soloRoutingKey", "ride.solo");
+        ReflectionTestUtils.setField(outbox, "sharedRoutingKey", "ride.shared");
+        return outbox;
+    }
+
+    @Test
+    void rideDispatchedAgainAfterARescheduleIsEnqueuedAgain() {
+        RideOutbox outbox = outbox();
+        ScheduledRide ride = ScheduledRide.builder()
+                .id("r1").status(ScheduledRideStatus.DISPATCHED).dispatchClaimId("claim-1")
+                .scheduledTime(Instant.parse("2026-01-01T08:00:00Z"))
+                .build();
+
+        outbox.enqueue(List.of(outbox.soloDispatch(ride)));
+        // Rescheduled back to SCHEDULED and claimed by a later dispatch pass
+        outbox.enqueue(List.of(outbox.soloDispatch(ride.toBuilder().dispatchClaimId("claim-2").build())));
+        outbox.enqueue(List.of(outbox.sharedDispatch("g1", "claim-3", List.of(ride))));
+        outbox.enqueue(List.of(outbox.sharedDispatch("g1", "claim-4", List.of(ride))));
+        assertEquals(4, inserted.size());
+
+        // Replaying the same claim still collides
+        assertThrows(DuplicateKeyException.class,
+                () -> outbox.enqueue(List.of(outbox.soloDispatch(ride))));
+    }
+}
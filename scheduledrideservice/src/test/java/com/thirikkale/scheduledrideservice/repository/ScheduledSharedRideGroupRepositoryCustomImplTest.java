@@ -0,0 +1,129 @@
+package com.thirikkale.scheduledrideservice.repository;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import com.thirikkale.scheduledrideservice.model.ScheduledSharedRideGroup;
+import com.thirikkale.scheduledrideservice.model.ScheduledSharedRideMember;
+import com.thirikkale.scheduledrideservice.model.enums.ScheduledRideStatus;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ScheduledSharedRideGroupRepositoryCustomImplTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T08:00:00Z");
+
+    // Stored rides by id; the mocked template applies the writes this test cares about to them
+    private final Map<String, ScheduledRide> stored = new LinkedHashMap<>();
+
+    @Test
+    void rollbackLeavesAMemberCancelledMidSaveCancelled() {
+        ScheduledRide a = grouping("a");
+        ScheduledRide b = grouping("b");
+        MongoTemplate template = mock(MongoTemplate.class);
+        BulkOperations groupOps = mock(BulkOperations.class);
+        BulkOperations rideOps = mock(BulkOperations.class);
+        BulkOperations memberOps = mock(BulkOperations.class);
+        when(template.bulkOps(any(), eq(ScheduledSharedRideGroup.class))).thenReturn(groupOps);
+        when(template.bulkOps(any(), eq(ScheduledRide.class))).thenReturn(rideOps);
+        when(template.bulkOps(any(), eq(ScheduledSharedRideMember.class))).thenReturn(memberOps);
+
+        FormedGroup formed = new FormedGroup(ScheduledSharedRideGroup.builder().build(), List.of(a, b));
+        // Both rides are claimed for the group
+        when(rideOps.execute()).thenAnswer(inv -> {
+            stored.values().forEach(r -> {
+                r.setSharedGroupId(formed.getGroup().getId());
+                r.setStatus(ScheduledRideStatus.SCHEDULED);
+                r.setUpdatedAt(NOW);
+            });
+            return null;
+        });
+        when(template.find(any(Query.class), eq(ScheduledRide.class)))
+                .thenAnswer(inv -> new ArrayList<>(stored.values()));
+        // The rider of b cancels, then the member insert fails and the group is rolled back
+        when(memberOps.execute()).thenAnswer(inv -> {
+            stored.get("b").setStatus(ScheduledRideStatus.CANCELLED);
+            stored.get("b").setUpdatedAt(NOW.plusSeconds(1));
+            throw new IllegalStateException("write conflict");
+        });
+        when(template.updateMulti(any(Query.class), any(Update.class), eq(ScheduledRide.class))).thenAnswer(inv -> {
+            Document filter = inv.getArgument(0, Query.class).getQueryObject();
+            Document update = inv.getArgument(1, Update.class).getUpdateObject();
+            stored.values().stream().filter(r -> matches(filter, r)).forEach(r -> {
+                r.setSharedGroupId(null);
+                r.setStatus((ScheduledRideStatus) update.get("$set", Document.class).get("status"));
+            });
+            return null;
+        });
+
+        GroupBatchWriteResult result = new ScheduledSharedRideGroupRepositoryCustomImpl(template)
+                .saveFormedGroups(List.of(formed), NOW);
+
+        assertEquals(List.of(formed), result.getRolledBack());
+        assertEquals(ScheduledRideStatus.GROUPING, stored.get("a").getStatus());
+        assertNull(stored.get("a").getSharedGroupId());
+        assertEquals(ScheduledRideStatus.CANCELLED, stored.get("b").getStatus());
+    }
+
+    @Test
+    void failedRollbackIsReportedAndTheGroupMarkedFailed() {
+        ScheduledRide a = grouping("a");
+        MongoTemplate template = mock(MongoTemplate.class);
+        BulkOperations ops = mock(BulkOperations.class);
+        when(template.bulkOps(any(), any(Class.class))).thenReturn(ops);
+        FormedGroup formed = new FormedGroup(ScheduledSharedRideGroup.builder().build(), List.of(a));
+        // Groups insert, then the ride claim fails, and so does the rollback that follows
+        when(ops.execute()).thenReturn(null).thenThrow(new IllegalStateException("primary stepped down"));
+        when(template.updateMulti(any(Query.class), any(Update.class), eq(ScheduledRide.class)))
+                .thenThrow(new IllegalStateException("primary stepped down"));
+
+        GroupBatchWriteResult result = new ScheduledSharedRideGroupRepositoryCustomImpl(template)
+                .saveFormedGroups(List.of(formed), NOW);
+
+        assertEquals(List.of(formed), result.getUnresolved());
+        assertEquals(List.of(), result.getRolledBack());
+        assertEquals(List.of(), result.getPersisted());
+        assertTrue(result.getErrors().stream().anyMatch(e -> e.startsWith("group rollback failed")));
+        verify(template).updateMulti(any(Query.class),
+                argThat((Update u) -> ScheduledRideStatus.FAILED.equals(u.getUpdateObject().get("$set", Document.class).get("status"))),
+                eq(ScheduledSharedRideGroup.class));
+    }
+
+    private ScheduledRide grouping(String id) {
+        ScheduledRide ride = ScheduledRide.builder()
+                .id(id).isSharedRide(true).status(ScheduledRideStatus.GROUPING).updatedAt(NOW.minusSeconds(60))
+                .build();
+        stored.put(id, ride.toBuilder().build());
+        return ride;
+    }
+
+    // Just the operators the rollback filter uses: $in on sharedGroupId, equality on the rest
+    private static boolean matches(Document filter, ScheduledRide ride) {
+        for (Map.Entry<String, Object> e : filter.entrySet()) {
+            Object actual = switch (e.getKey()) {
+                case "sharedGroupId" -> ride.getSharedGroupId();
+                case "status" -> ride.getStatus();
+                case "updatedAt" -> ride.getUpdatedAt();
+                default -> throw new IllegalArgumentException("unexpected filter field " + e.getKey());
+            };
+            boolean ok = e.getValue() instanceof Document op
+                    ? ((Collection<?>) op.get("$in")).contains(actual)
+                    : Objects.equals(e.getValue(), actual);
+            if (!ok) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,38 @@
+package com.thirikkale.scheduledrideservice.scheduler;
+
+import com.thirikkale.scheduledrideservice.model.ScheduledRide;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DispatchMetricsTest {
+
+    @Test
+    void lagIsMeasuredFromScheduledTimeMinusLeadTime() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DispatchMetrics metrics = new DispatchMetrics(registry);
+        ReflectionTestUtils.setField(metrics, "leadTimeMinutes", 10);
+        metrics.registerMeters();
+
+        Instant now = Instant.parse("2026-01-01T08:00:00Z");
+        // Due 3 minutes ago, and a later group member that goes out 5 minutes early
+        ScheduledRide late = ScheduledRide.builder().scheduledTime(now.plus(7, ChronoUnit.MINUTES)).build();
+        ScheduledRide early = ScheduledRide.builder().scheduledTime(now.plus(15, ChronoUnit.MINUTES)).build();
+        metrics.dispatched(DispatchMetrics.SHARED, List.of(late, early), now);
+
+        Timer lag = registry.get("scheduled_rides.dispatch.lag").tag("type", "shared").timer();
+        assertEquals(2, lag.count());
+        assertEquals(180, lag.max(TimeUnit.SECONDS), 1e-9);
+        assertEquals(180, lag.totalTime(TimeUnit.SECONDS), 1e-9);
+        assertEquals(2, registry.get("scheduled_rides.dispatch.rides").tag("type", "shared").summary().totalAmount());
+        assertEquals(0, registry.get("scheduled_rides.dispatch.rides").tag("type", "solo").summary().count());
+    }
+}
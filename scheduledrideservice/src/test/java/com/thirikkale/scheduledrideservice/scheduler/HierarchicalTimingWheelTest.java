@@ -0,0 +1,61 @@
+package com.thirikkale.scheduledrideservice.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void firesEveryKeyWithinOneTickOfItsDueTime() {
+        long tick = 1000;
+        long start = 1_700_000_000_000L;
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(tick, 8, start);
+        Random random = new Random(7);
+        Map<Integer, Long> due = new HashMap<>();
+        // Spread over several overflow levels (8s, 64s, 512s, 4096s)
+        for (int i = 0; i < 2000; i++) {
+            long at = start + (long) (random.nextDouble() * 6 * 3600 * 1000);
+            due.put(i, at);
+            wheel.schedule(i, at);
+        }
+
+        Map<Integer, Long> firedAt = new HashMap<>();
+        long now = start;
+        while (firedAt.size() < due.size() && now < start + 7 * 3600 * 1000L) {
+            // Uneven steps, including jumps longer than a whole root rotation
+            now += random.nextInt(10) == 0 ? 20_000 : 700;
+            for (Integer key : wheel.advanceTo(now)) {
+                assertTrue(firedAt.put(key, now) == null, "fired twice: " + key);
+            }
+        }
+
+        assertEquals(due.size(), firedAt.size());
+        for (Map.Entry<Integer, Long> e : firedAt.entrySet()) {
+            long expected = due.get(e.getKey());
+            assertTrue(e.getValue() >= expected, "fired early: " + e.getKey());
+            // Late by at most one tick plus the step that crossed it
+            assertTrue(e.getValue() - expected <= tick + 20_000, "fired late: " + e.getKey());
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledAndRescheduledKeysFireOnlyForTheirLatestTime() {
+        long start = 0;
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 60, start);
+        wheel.schedule("cancelled", 5_000);
+        wheel.schedule("moved", 5_000);
+        wheel.schedule("overdue", -10_000);
+        wheel.cancel("cancelled");
+        wheel.schedule("moved", 2 * 3600 * 1000L);
+
+        assertEquals(List.of("overdue"), wheel.advanceTo(10_000));
+        assertEquals(List.of(), wheel.advanceTo(2 * 3600 * 1000L - 1));
+        assertEquals(List.of("moved"), wheel.advanceTo(2 * 3600 * 1000L + 1000));
+        assertEquals(0, wheel.size());
+    }
+}
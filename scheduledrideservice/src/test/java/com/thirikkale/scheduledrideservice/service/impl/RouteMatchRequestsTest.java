@@ -0,0 +1,26 @@
+package com.thirikkale.scheduledrideservice.service.impl;
+
+import com.thirikkale.scheduledrideservice.dto.RouteMatchRequestDto;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RouteMatchRequestsTest {
+
+    private static RouteMatchRequestDto.RouteMatchRequestDtoBuilder request() {
+        return RouteMatchRequestDto.builder()
+                .pickupLatitude(6.90).pickupLongitude(79.85)
+                .dropoffLatitude(6.93).dropoffLongitude(79.90);
+    }
+
+    @Test
+    void requestWithoutALimitIsNotTruncated() {
+        assertEquals(Integer.MAX_VALUE, RouteMatchRequests.selector(request().build(), 200).limit());
+    }
+
+    @Test
+    void explicitLimitIsCappedAtTheMaximum() {
+        assertEquals(10, RouteMatchRequests.selector(request().limit(10).build(), 200).limit());
+        assertEquals(200, RouteMatchRequests.selector(request().limit(5000).build(), 200).limit());
+    }
+}
@@ -0,0 +1,145 @@
+package com.thirikkale.scheduledrideservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class GeoKernelTest {
+
+    // Distances may differ from the boxed haversine by rounding only
+    private static final double DISTANCE_TOLERANCE_KM = 1e-9;
+    // Points closer than 1 mm to the circle may fall either way
+    private static final double BOUNDARY_TOLERANCE_KM = 1e-6;
+
+    // DistanceCalculator's formula before it delegated to GeoKernel
+    private static double reference(double lat1, double lon1, double lat2, double lon2) {
+        double deltaLat = Math.toRadians(lat2 - lat1);
+        double deltaLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2) +
+                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
+                Math.sin(deltaLon / 2) * Math.sin(deltaLon / 2);
+        return 6371.0 * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    private static double lat(Random random) {
+        return random.nextDouble() * 180 - 90;
+    }
+
+    private static double lng(Random random) {
+        return random.nextDouble() * 360 - 180;
+    }
+
+    @Test
+    void distanceMatchesHaversine() {
+        Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            double lat1 = lat(random), lng1 = lng(random), lat2 = lat(random), lng2 = lng(random);
+            assertEquals(reference(lat1, lng1, lat2, lng2), GeoKernel.distanceKm(lat1, lng1, lat2, lng2),
+                    DISTANCE_TOLERANCE_KM);
+            assertEquals(reference(lat1, lng1, lat2, lng2), GeoKernel.circle(lat1, lng1, 1).distanceKm(lat2, lng2),
+                    DISTANCE_TOLERANCE_KM);
+        }
+    }
+
+    @Test
+    void circleAgreesWithHaversineRadiusCheck() {
+        Random random = new Random(2);
+        double[] radii = {0.05, 0.8, 5, 50, 2000};
+        // Colombo, near the poles and across the antimeridian, plus random centres
+        double[][] centres = {{6.9271, 79.8612}, {89.9, 10}, {-89.5, -120}, {0, 179.99}, {-45, -179.95}};
+        int checked = 0;
+        for (int c = 0; c < centres.length + 20; c++) {
+            double lat = c < centres.length ? centres[c][0] : lat(random);
+            double lng = c < centres.length ? centres[c][1] : lng(random);
+            for (double radiusKm : radii) {
+                GeoKernel.Circle circle = GeoKernel.circle(lat, lng, radiusKm);
+                double spread = Math.toDegrees(radiusKm / 6371.0) * 3;
+                for (int i = 0; i < 2_000; i++) {
+                    double pLat = Math.max(-90, Math.min(90, lat + (random.nextDouble() * 2 - 1) * spread));
+                    double pLng = lng + (random.nextDouble() * 2 - 1) * spread;
+                    if (pLng > 180) pLng -= 360;
+                    if (pLng < -180) pLng += 360;
+                    double expected = reference(lat, lng, pLat, pLng);
+                    if (Math.abs(expected - radiusKm) < BOUNDARY_TOLERANCE_KM) continue;
+                    boolean inside = expected <= radiusKm;
+                    assertEquals(inside, circle.contains(pLat, pLng),
+                            "centre " + lat + "," + lng + " radius " + radiusKm + " point " + pLat + "," + pLng);
+                    double within = circle.distanceIfWithinKm(pLat, pLng);
+                    if (inside) {
+                        assertEquals(expected, within, DISTANCE_TOLERANCE_KM);
+                    } else {
+                        assertTrue(Double.isNaN(within));
+                    }
+                    checked++;
+                }
+            }
+        }
+        assertTrue(checked > 200_000);
+    }
+
+    @Test
+    void batchFilterMatchesContains() {
+        Random random = new Random(3);
+        int n = 5_000;
+        double[] lats = new double[n];
+        double[] lngs = new double[n];
+        for (int i = 0; i < n; i++) {
+            lats[i] = 6.9271 + (random.nextDouble() - 0.5) * 0.2;
+            lngs[i] = 79.8612 + (random.nextDouble() - 0.5) * 0.2;
+        }
+        GeoKernel.Circle circle = GeoKernel.circle(6.9271, 79.8612, 4);
+        int[] within = new int[n];
+        double[] distances = new double[n];
+        int found = circle.filter(lats, lngs, n, within, distances);
+
+        int expected = 0;
+        for (int i = 0; i < n; i++) {
+            if (circle.contains(lats[i], lngs[i])) {
+                assertEquals(i, within[expected]);
+                assertEquals(reference(6.9271, 79.8612, lats[i], lngs[i]), distances[expected], DISTANCE_TOLERANCE_KM);
+                expected++;
+            }
+        }
+        assertEquals(expected, found);
+        assertTrue(found > 0 && found < n);
+    }
+
+    @Test
+    void vectorFilterMatchesScalar() {
+        GeoBatchFilter vector = GeoBatchFilter.vector();
+        assumeTrue(vector != null, "jdk.incubator.vector not available");
+        Random random = new Random(4);
+        for (int round = 0; round < 200; round++) {
+            double lat = round % 4 == 0 ? 89.99 : lat(random);
+            double lng = round % 4 == 1 ? 179.999 : lng(random);
+            double radiusKm = 0.1 + random.nextDouble() * 20;
+            // Odd sizes exercise the scalar tail after the last full vector
+            int n = 1 + random.nextInt(300);
+            double spread = Math.toDegrees(radiusKm / 6371.0) * 2;
+            double[] lats = new double[n];
+            double[] lngs = new double[n];
+            for (int i = 0; i < n; i++) {
+                lats[i] = Math.max(-90, Math.min(90, lat + (random.nextDouble() * 2 - 1) * spread));
+                double pLng = lng + (random.nextDouble() * 2 - 1) * spread;
+                lngs[i] = pLng > 180 ? pLng - 360 : pLng < -180 ? pLng + 360 : pLng;
+            }
+            GeoKernel.Circle circle = GeoKernel.circle(lat, lng, radiusKm);
+            int[] expected = new int[n];
+            int[] actual = new int[n];
+            double[] expectedKm = new double[n];
+            double[] actualKm = new double[n];
+            int expectedCount = GeoBatchFilter.scalar().filter(circle, lats, lngs, n, expected, expectedKm);
+            int actualCount = vector.filter(circle, lats, lngs, n, actual, actualKm);
+
+            assertEquals(expectedCount, actualCount, vector.name() + " round " + round);
+            for (int k = 0; k < expectedCount; k++) {
+                assertEquals(expected[k], actual[k]);
+                assertEquals(expectedKm[k], actualKm[k], DISTANCE_TOLERANCE_KM);
+            }
+        }
+    }
+}